@@ -26,9 +26,12 @@ import net.minecraft.util.Identifier;
 import top.bearcabbage.twodimensional_bedwars.api.IArena.GameStatus;
 import top.bearcabbage.twodimensional_bedwars.command.BedWarsCommand;
 import top.bearcabbage.twodimensional_bedwars.component.Arena;
+import top.bearcabbage.twodimensional_bedwars.component.MapManager;
 import top.bearcabbage.twodimensional_bedwars.game.ArenaManager;
+import top.bearcabbage.twodimensional_bedwars.game.ArenaProfiler;
 import top.bearcabbage.twodimensional_bedwars.mechanic.CustomItemHandler;
 import top.bearcabbage.twodimensional_bedwars.world.ArenaChunkGenerator;
+import top.bearcabbage.twodimensional_bedwars.world.ChunkLeases;
 import top.bearcabbage.twodimensional_bedwars.world.SplitBiomeSource;
 
 public class TwoDimensionalBedWars implements ModInitializer {
@@ -42,24 +45,35 @@ public class TwoDimensionalBedWars implements ModInitializer {
 
         Registry.register(Registries.BIOME_SOURCE, Identifier.of(MOD_ID, "split"), SplitBiomeSource.CODEC);
         Registry.register(Registries.CHUNK_GENERATOR, Identifier.of(MOD_ID, "arena"), ArenaChunkGenerator.CODEC);
+        Registry.register(Registries.TICKET_TYPE, Identifier.of(MOD_ID, "lease"), ChunkLeases.TICKET_TYPE);
 
         PlayerDataApi.register(BACKUP_STORAGE);
 
         CustomItemHandler.init();
 
         net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents.LOAD.register((server, world) -> {
+            // The blueprint must not read its region files before the import has written them
+            if (world.getRegistryKey().getValue().equals(Identifier.of(MOD_ID, "blueprint"))) {
+                top.bearcabbage.twodimensional_bedwars.component.TemplateImport.await();
+            }
             if (world.getRegistryKey().getValue().getNamespace().equals(MOD_ID) &&
-                    world.getRegistryKey().getValue().getPath().equals("arena")) {
+                    world.getRegistryKey().getValue().getPath().startsWith("arena")) {
                 world.setTimeOfDay(6000);
                 world.getGameRules().get(net.minecraft.world.GameRules.DO_DAYLIGHT_CYCLE).set(false, server);
             }
         });
 
+        // Game entity registries see everything entering or leaving the arena dimensions
+        net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents.ENTITY_LOAD
+                .register(top.bearcabbage.twodimensional_bedwars.world.GameEntities::onEntityLoad);
+        net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents.ENTITY_UNLOAD
+                .register(top.bearcabbage.twodimensional_bedwars.world.GameEntities::onEntityUnload);
+
         // Safe Breakdown on Server Stop
         net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
-            if (ArenaManager.getInstance().getArena() instanceof Arena gameArena) {
-                if (gameArena.getStatus() == GameStatus.PLAYING) {
-                    LOGGER.info("Server stopping: Forcing game end and cleanup...");
+            for (top.bearcabbage.twodimensional_bedwars.api.IArena arena : ArenaManager.getInstance().getArenas()) {
+                if (arena instanceof Arena gameArena && gameArena.getStatus() == GameStatus.PLAYING) {
+                    LOGGER.info("Server stopping: Forcing end and cleanup of arena {}...", gameArena.getId());
                     gameArena.stopGame();
                 }
             }
@@ -75,42 +89,33 @@ public class TwoDimensionalBedWars implements ModInitializer {
                         java.nio.file.Path levelPath = server.getSavePath(net.minecraft.util.WorldSavePath.ROOT);
                         java.nio.file.Path destPath = levelPath.resolve("dimensions/two-dimensional-bedwars/blueprint");
 
+                        // A .bwmap built from this exact map_template makes the region import unnecessary
+                        java.nio.file.Path mapFile = levelPath.resolve("dimensions/two-dimensional-bedwars/blueprint.bwmap");
+                        if (MapManager.loadTemplateFile(mapFile,
+                                top.bearcabbage.twodimensional_bedwars.component.ArenaMapFile.sourceStamp(sourcePath))) {
+                            LOGGER.info("Arena template {} is up to date, skipping map import.", mapFile);
+                            return;
+                        }
+
                         LOGGER.info("Importing Map from Mod Resources ({}) to {}", sourcePath, destPath);
 
                         if (!java.nio.file.Files.exists(destPath)) {
                             java.nio.file.Files.createDirectories(destPath);
                         } else {
                             try {
-                                java.nio.file.Files.deleteIfExists(destPath.resolve("level.dat"));
-                                java.nio.file.Files.deleteIfExists(destPath.resolve("level.dat_old"));
-                                java.nio.file.Files.deleteIfExists(destPath.resolve("session.lock"));
-                                LOGGER.info("Cleaned up potential conflicting world data in blueprint dimension.");
+                                boolean cleaned = java.nio.file.Files.deleteIfExists(destPath.resolve("level.dat"))
+                                        | java.nio.file.Files.deleteIfExists(destPath.resolve("level.dat_old"))
+                                        | java.nio.file.Files.deleteIfExists(destPath.resolve("session.lock"));
+                                if (cleaned) {
+                                    LOGGER.info("Cleaned up potential conflicting world data in blueprint dimension.");
+                                }
                             } catch (java.io.IOException e) {
                                 LOGGER.warn("Failed to clean up blueprint directory", e);
                             }
                         }
 
-                        try (java.util.stream.Stream<java.nio.file.Path> stream = java.nio.file.Files
-                                .walk(sourcePath)) {
-                            stream.forEach(source -> {
-                                String relative = sourcePath.relativize(source).toString();
-                                if (!relative.startsWith("region"))
-                                    return;
-                                java.nio.file.Path destination = destPath.resolve(relative);
-                                try {
-                                    if (java.nio.file.Files.isDirectory(source)) {
-                                        if (!java.nio.file.Files.exists(destination))
-                                            java.nio.file.Files.createDirectories(destination);
-                                    } else {
-                                        java.nio.file.Files.copy(source, destination,
-                                                java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-                                    }
-                                } catch (java.io.IOException e) {
-                                    LOGGER.error("Failed to copy file: " + source, e);
-                                }
-                            });
-                        }
-                        LOGGER.info("Map Import Complete.");
+                        // Only changed region files are copied; the rest of startup goes on meanwhile
+                        top.bearcabbage.twodimensional_bedwars.component.TemplateImport.start(sourcePath, destPath);
                     } else {
                         LOGGER.warn("map_template not found in Mod Resources!");
                     }
@@ -120,187 +125,249 @@ public class TwoDimensionalBedWars implements ModInitializer {
             }
         });
 
-        ArenaManager.getInstance().registerArena(new Arena());
+        // Compile the blueprint regions once unless the .bwmap was mapped; restores read from memory afterwards
+        net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            if (MapManager.getTemplate() == null) {
+                ServerWorld blueprint = server.getWorld(net.minecraft.registry.RegistryKey.of(
+                        net.minecraft.registry.RegistryKeys.WORLD, Identifier.of(MOD_ID, "blueprint")));
+                if (blueprint != null) {
+                    MapManager.compileTemplate(blueprint);
+                } else {
+                    LOGGER.warn("Blueprint dimension not found, arena restore disabled.");
+                }
+            }
+
+            // Bring every arena dimension back to the template before the first match
+            ArenaManager.getInstance().getBuffers().load(server);
+        });
+
+        // Arenas share the dimension pool, each running match holds one dimension
+        int arenaCount = Math.max(1, top.bearcabbage.twodimensional_bedwars.config.GameConfig.getInstance().arenaInstances);
+        for (int i = 0; i < arenaCount; i++) {
+            ArenaManager.getInstance().registerArena(new Arena(String.valueOf(i + 1), ArenaManager.getInstance().getBuffers()));
+        }
 
         CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> {
             BedWarsCommand.register(dispatcher);
         });
 
         ServerTickEvents.END_SERVER_TICK.register(server -> {
-            if (ArenaManager.getInstance().getArena() instanceof Arena gameArena) {
-                gameArena.tick(server.getOverworld());
+            long profile = ArenaProfiler.begin();
+            long section = ArenaProfiler.begin();
+            ArenaManager.getInstance().getBuffers().tick(server);
+            ArenaProfiler.end(ArenaProfiler.POOL, section);
+            section = ArenaProfiler.begin();
+            ArenaManager.getInstance().getQueue().tick(server);
+            ArenaProfiler.end(ArenaProfiler.MATCHMAKING, section);
+            for (top.bearcabbage.twodimensional_bedwars.api.IArena arena : ArenaManager.getInstance().getArenas()) {
+                if (arena instanceof Arena gameArena) {
+                    gameArena.tick(server.getOverworld());
+                }
             }
+            ArenaManager.getInstance().getScheduler().tick(server.getTicks());
+            ArenaProfiler.end(ArenaProfiler.SERVER_TICK, profile);
+            ArenaProfiler.tick();
         });
 
         ServerPlayerEvents.ALLOW_DEATH.register((player, damageSource, damageAmount) -> {
-            if (ArenaManager.getInstance().getArena() instanceof Arena gameArena) {
-                if (gameArena.getStatus() == GameStatus.PLAYING) {
-                    gameArena.handleDeath(player, damageSource);
-                    player.setHealth(player.getMaxHealth());
-                    player.getHungerManager().setFoodLevel(20);
-                    player.getInventory().clear();
-                    player.teleport((ServerWorld) player.getWorld(), player.getX(), 100.0, player.getZ(),
-                            EnumSet.noneOf(PositionFlag.class), player.getYaw(), player.getPitch(), false);
-                    return false;
+            long profile = ArenaProfiler.begin();
+            try {
+                if (ArenaManager.getInstance().getArena(player) instanceof Arena gameArena) {
+                    if (gameArena.getStatus() == GameStatus.PLAYING) {
+                        gameArena.handleDeath(player, damageSource);
+                        player.setHealth(player.getMaxHealth());
+                        player.getHungerManager().setFoodLevel(20);
+                        player.getInventory().clear();
+                        player.teleport((ServerWorld) player.getWorld(), player.getX(), 100.0, player.getZ(),
+                                EnumSet.noneOf(PositionFlag.class), player.getYaw(), player.getPitch(), false);
+                        return false;
+                    }
                 }
+                return true;
+            } finally {
+                ArenaProfiler.end(ArenaProfiler.EVENT_DEATH, profile);
             }
-            return true;
         });
 
         // Instant Break Logic (Re-added)
         net.fabricmc.fabric.api.event.player.AttackBlockCallback.EVENT
                 .register((player, world, hand, pos, direction) -> {
-                    if (!world.isClient && player instanceof ServerPlayerEntity serverPlayer) {
-                        if (ArenaManager.getInstance().getArena() instanceof Arena gameArena) {
-                            if (gameArena.getStatus() == GameStatus.PLAYING) {
-                                // Restriction: Participants Only
-                                if (!gameArena.getParticipantUUIDs().contains(serverPlayer.getUuid())) {
-                                    return ActionResult.PASS;
-                                }
+                    long profile = ArenaProfiler.begin();
+                    try {
+                        if (!world.isClient && player instanceof ServerPlayerEntity serverPlayer) {
+                            if (ArenaManager.getInstance().getArena(serverPlayer) instanceof Arena gameArena) {
+                                if (gameArena.getStatus() == GameStatus.PLAYING) {
+                                    // Restriction: Participants Only
+                                    if (!gameArena.getParticipantUUIDs().contains(serverPlayer.getUuid())) {
+                                        return ActionResult.PASS;
+                                    }
 
-                                if (gameArena.attemptBreakBed(serverPlayer, pos)) {
-                                    return ActionResult.SUCCESS; // Handled (Instant Break)
+                                    if (gameArena.attemptBreakBed(serverPlayer, pos)) {
+                                        return ActionResult.SUCCESS; // Handled (Instant Break)
+                                    }
                                 }
                             }
                         }
+                        return ActionResult.PASS;
+                    } finally {
+                        ArenaProfiler.end(ArenaProfiler.EVENT_ATTACK_BLOCK, profile);
                     }
-                    return ActionResult.PASS;
                 });
 
         PlayerBlockBreakEvents.BEFORE.register((world, player, pos, state, blockEntity) -> {
-            if (player.isCreative())
-                return true;
-
-            if (ArenaManager.getInstance().getArena() instanceof Arena gameArena) {
-                if (player instanceof ServerPlayerEntity serverPlayer) {
-                    // 1. If Game is NOT playing, allow everything.
-                    if (gameArena.getStatus() != GameStatus.PLAYING) {
-                        return true;
-                    }
+            long profile = ArenaProfiler.begin();
+            try {
+                if (player.isCreative())
+                    return true;
+
+                if (ArenaManager.getInstance().getArena(player.getUuid()) instanceof Arena gameArena) {
+                    if (player instanceof ServerPlayerEntity serverPlayer) {
+                        // 1. If Game is NOT playing, allow everything.
+                        if (gameArena.getStatus() != GameStatus.PLAYING) {
+                            return true;
+                        }
 
-                    // 2. If Player is NOT in the Game World, allow everything.
-                    if (gameArena.getGameWorld() != null && player.getWorld() != gameArena.getGameWorld()) {
-                        return true;
-                    }
+                        // 2. If Player is NOT in the Game World, allow everything.
+                        if (gameArena.getGameWorld() != null && player.getWorld() != gameArena.getGameWorld()) {
+                            return true;
+                        }
 
-                    // 3. Restriction: Participants Only (NEW)
-                    if (!gameArena.getParticipantUUIDs().contains(serverPlayer.getUuid())) {
-                        return true;
-                    }
+                        // 3. Restriction: Participants Only (NEW)
+                        if (!gameArena.getParticipantUUIDs().contains(serverPlayer.getUuid())) {
+                            return true;
+                        }
 
-                    // 4. Game is PLAYING and Player is in Game World.
-                    // Apply Restrictions.
-                    if (gameArena.getData().isBlockPlayerPlaced(pos)
-                            || state.getBlock() instanceof net.minecraft.block.BedBlock) {
-                        return gameArena.handleBlockBreak(serverPlayer, pos, state);
-                    } else {
-                        serverPlayer.sendMessage(
-                                Text.translatable("two-dimensional-bedwars.block.break_map_prevention"), true);
-                        return false;
+                        // 4. Game is PLAYING and Player is in Game World.
+                        // Apply Restrictions.
+                        if (gameArena.getData().isBlockPlayerPlaced(pos)
+                                || state.getBlock() instanceof net.minecraft.block.BedBlock) {
+                            return gameArena.handleBlockBreak(serverPlayer, pos, state);
+                        } else {
+                            serverPlayer.sendMessage(
+                                    Text.translatable("two-dimensional-bedwars.block.break_map_prevention"), true);
+                            return false;
+                        }
                     }
                 }
+                return true;
+            } finally {
+                ArenaProfiler.end(ArenaProfiler.EVENT_BREAK_BLOCK, profile);
             }
-            return true;
         });
 
         net.fabricmc.fabric.api.event.player.UseBlockCallback.EVENT.register((player, world, hand, hitResult) -> {
-            if (!world.isClient && player instanceof ServerPlayerEntity serverPlayer) {
-                if (ArenaManager.getInstance().getArena() instanceof Arena gameArena) {
-                    if (gameArena.getStatus() == GameStatus.PLAYING) {
-                        // Restriction: Participants Only
-                        if (!gameArena.getParticipantUUIDs().contains(serverPlayer.getUuid())) {
-                            return ActionResult.PASS;
-                        }
+            long profile = ArenaProfiler.begin();
+            try {
+                if (!world.isClient && player instanceof ServerPlayerEntity serverPlayer) {
+                    if (ArenaManager.getInstance().getArena(serverPlayer) instanceof Arena gameArena) {
+                        if (gameArena.getStatus() == GameStatus.PLAYING) {
+                            // Restriction: Participants Only
+                            if (!gameArena.getParticipantUUIDs().contains(serverPlayer.getUuid())) {
+                                return ActionResult.PASS;
+                            }
 
-                        net.minecraft.block.BlockState state = world.getBlockState(hitResult.getBlockPos());
+                            net.minecraft.block.BlockState state = world.getBlockState(hitResult.getBlockPos());
 
-                        if (state.getBlock() == net.minecraft.block.Blocks.CRAFTING_TABLE) {
-                            player.sendMessage(Text.translatable("two-dimensional-bedwars.block.crafting_disabled"),
-                                    true);
-                            return ActionResult.FAIL;
-                        }
+                            if (state.getBlock() == net.minecraft.block.Blocks.CRAFTING_TABLE) {
+                                player.sendMessage(Text.translatable("two-dimensional-bedwars.block.crafting_disabled"),
+                                        true);
+                                return ActionResult.FAIL;
+                            }
 
-                        // Block Respawn Anchor Interaction to prevent explosion
-                        if (state.getBlock() == net.minecraft.block.Blocks.RESPAWN_ANCHOR) {
-                            return ActionResult.FAIL;
-                        }
+                            // Block Respawn Anchor Interaction to prevent explosion
+                            if (state.getBlock() == net.minecraft.block.Blocks.RESPAWN_ANCHOR) {
+                                return ActionResult.FAIL;
+                            }
 
-                        if (state.getBlock() == net.minecraft.block.Blocks.ENDER_CHEST) {
+                            if (state.getBlock() == net.minecraft.block.Blocks.ENDER_CHEST) {
 
-                            if (gameArena.handleEnderChest(serverPlayer))
-                                return ActionResult.SUCCESS;
-                        }
+                                if (gameArena.handleEnderChest(serverPlayer))
+                                    return ActionResult.SUCCESS;
+                            }
 
-                        if (state.getBlock() instanceof net.minecraft.block.BedBlock) {
-                            if (!serverPlayer.isSneaking()) {
-                                serverPlayer.sendMessage(
-                                        Text.translatable("two-dimensional-bedwars.block.sleep_disabled"), true);
-                                return ActionResult.FAIL;
+                            if (state.getBlock() instanceof net.minecraft.block.BedBlock) {
+                                if (!serverPlayer.isSneaking()) {
+                                    serverPlayer.sendMessage(
+                                            Text.translatable("two-dimensional-bedwars.block.sleep_disabled"), true);
+                                    return ActionResult.FAIL;
+                                }
                             }
-                        }
 
-                        net.minecraft.item.ItemStack stack = player.getStackInHand(hand);
-                        if (stack.getItem() instanceof net.minecraft.item.BlockItem) {
-                            net.minecraft.util.math.BlockPos targetPos = hitResult.getBlockPos()
-                                    .offset(hitResult.getSide());
-                            String special = CustomItemHandler.getSpecialType(stack);
-                            if (special != null && special.equals("BLAST_PROOF_GLASS")) {
-                                gameArena.getData().recordBlastProof(targetPos);
-                            } else {
-                                gameArena.getData().recordPlacedBlock(targetPos);
+                            net.minecraft.item.ItemStack stack = player.getStackInHand(hand);
+                            if (stack.getItem() instanceof net.minecraft.item.BlockItem) {
+                                net.minecraft.util.math.BlockPos targetPos = hitResult.getBlockPos()
+                                        .offset(hitResult.getSide());
+                                String special = CustomItemHandler.getSpecialType(stack);
+                                if (special != null && special.equals("BLAST_PROOF_GLASS")) {
+                                    gameArena.getData().recordBlastProof(targetPos);
+                                } else {
+                                    gameArena.getData().recordPlacedBlock(targetPos);
+                                }
                             }
                         }
                     }
                 }
+                return ActionResult.PASS;
+            } finally {
+                ArenaProfiler.end(ArenaProfiler.EVENT_USE_BLOCK, profile);
             }
-            return ActionResult.PASS;
         });
 
         net.fabricmc.fabric.api.event.player.UseEntityCallback.EVENT
                 .register((player, world, hand, entity, hitResult) -> {
-                    if (!world.isClient && player instanceof ServerPlayerEntity serverPlayer
-                            && hand == net.minecraft.util.Hand.MAIN_HAND) {
-                        if (entity.getCommandTags().contains("BedWarsShop")) {
-                            if (ArenaManager.getInstance().getArena() instanceof Arena gameArena) {
-                                if (gameArena.getStatus() != GameStatus.PLAYING)
-                                    return ActionResult.PASS;
-
-                                // Check if player is an alive participant
-                                if (!gameArena.getParticipantUUIDs().contains(player.getUuid())
-                                        || player.isSpectator()) {
-                                    return ActionResult.PASS;
-                                }
+                    long profile = ArenaProfiler.begin();
+                    try {
+                        if (!world.isClient && player instanceof ServerPlayerEntity serverPlayer
+                                && hand == net.minecraft.util.Hand.MAIN_HAND) {
+                            if (entity.getCommandTags().contains("BedWarsShop")) {
+                                if (ArenaManager.getInstance().getArena(serverPlayer) instanceof Arena gameArena) {
+                                    if (gameArena.getStatus() != GameStatus.PLAYING)
+                                        return ActionResult.PASS;
+
+                                    // Check if player is an alive participant
+                                    if (!gameArena.getParticipantUUIDs().contains(player.getUuid())
+                                            || player.isSpectator()) {
+                                        return ActionResult.PASS;
+                                    }
 
-                                java.util.List<top.bearcabbage.twodimensional_bedwars.config.GameConfig.ShopEntry> shopList = top.bearcabbage.twodimensional_bedwars.config.GameConfig
-                                        .getInstance().shop;
+                                    java.util.List<top.bearcabbage.twodimensional_bedwars.config.GameConfig.ShopEntry> shopList = top.bearcabbage.twodimensional_bedwars.config.GameConfig
+                                            .getInstance().shop;
 
-                                serverPlayer.openHandledScreen(
-                                        new top.bearcabbage.twodimensional_bedwars.screen.screens.BedWarsShopScreen(
-                                                shopList));
-                                return ActionResult.SUCCESS;
+                                    serverPlayer.openHandledScreen(
+                                            new top.bearcabbage.twodimensional_bedwars.screen.screens.BedWarsShopScreen(
+                                                    shopList));
+                                    return ActionResult.SUCCESS;
+                                }
                             }
                         }
+                        return ActionResult.PASS;
+                    } finally {
+                        ArenaProfiler.end(ArenaProfiler.EVENT_USE_ENTITY, profile);
                     }
-                    return ActionResult.PASS;
                 });
 
 
 
 
         net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents.ALLOW_DAMAGE.register((entity, source, amount) -> {
-            if (entity instanceof ServerPlayerEntity victim && source.getAttacker() instanceof ServerPlayerEntity attacker) {
-                if (ArenaManager.getInstance().getArena() instanceof Arena gameArena) {
-                    if (gameArena.getStatus() == GameStatus.PLAYING) {
-                         top.bearcabbage.twodimensional_bedwars.api.ITeam t1 = gameArena.getTeam(attacker);
-                         top.bearcabbage.twodimensional_bedwars.api.ITeam t2 = gameArena.getTeam(victim);
-
-                         if (t1 != null && t2 != null && t1.getName().equals(t2.getName())) {
-                             return false; // Cancel damage
-                         }
+            long profile = ArenaProfiler.begin();
+            try {
+                if (entity instanceof ServerPlayerEntity victim && source.getAttacker() instanceof ServerPlayerEntity attacker) {
+                    if (ArenaManager.getInstance().getArena(attacker) instanceof Arena gameArena) {
+                        if (gameArena.getStatus() == GameStatus.PLAYING) {
+                             top.bearcabbage.twodimensional_bedwars.api.ITeam t1 = gameArena.getTeam(attacker);
+                             top.bearcabbage.twodimensional_bedwars.api.ITeam t2 = gameArena.getTeam(victim);
+
+                             if (t1 != null && t2 != null && t1.getName().equals(t2.getName())) {
+                                 return false; // Cancel damage
+                             }
+                        }
                     }
                 }
+                return true;
+            } finally {
+                ArenaProfiler.end(ArenaProfiler.EVENT_DAMAGE, profile);
             }
-            return true;
         });
 
         ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
@@ -313,7 +380,7 @@ public class TwoDimensionalBedWars implements ModInitializer {
                     // Fix: If player successfully restored but was still tracked as "In Game",
                     // we must remove them from the Arena logic WITHOUT triggering another
                     // restore/wipe.
-                    if (ArenaManager.getInstance().getArena() instanceof Arena gameArena) {
+                    if (ArenaManager.getInstance().getArena(player) instanceof Arena gameArena) {
                         if (gameArena.getTeam(player) != null) {
                             gameArena.leavePlayer(player, true); // true = Skip Restore
                         }
@@ -324,7 +391,8 @@ public class TwoDimensionalBedWars implements ModInitializer {
 
         ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
             ServerPlayerEntity player = handler.getPlayer();
-            if (ArenaManager.getInstance().getArena() instanceof Arena gameArena) {
+            ArenaManager.getInstance().getQueue().leave(player.getUuid());
+            if (ArenaManager.getInstance().getArena(player) instanceof Arena gameArena) {
                 // Determine if player needs to be removed from Arena
                 // (Waiting, Spectator, or Playing)
                 // Arena's safe leavePlayer handles all cases or ignores if unknown.
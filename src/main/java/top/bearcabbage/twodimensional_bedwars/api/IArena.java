@@ -13,6 +13,8 @@ public interface IArena {
         RESTORING
     }
 
+    String getId();
+
     GameStatus getStatus();
 
     List<ITeam> getTeams();
@@ -30,4 +32,7 @@ public interface IArena {
     void stopGame();
 
     java.util.Set<java.util.UUID> getParticipantUUIDs();
+
+    // The dimension this arena's current match runs in, or null
+    net.minecraft.server.world.ServerWorld getGameWorld();
 }
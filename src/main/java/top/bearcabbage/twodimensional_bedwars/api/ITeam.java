@@ -21,8 +21,6 @@ public interface ITeam {
 
     void spawnNPCs();
     
-    void tick(net.minecraft.server.world.ServerWorld world);
-    
     String getName();
     
     int getColor(); // Decimal color for text/leather armor
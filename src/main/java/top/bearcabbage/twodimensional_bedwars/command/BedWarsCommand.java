@@ -1,16 +1,27 @@
 package top.bearcabbage.twodimensional_bedwars.command;
 
+import java.util.List;
+
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.minecraft.command.argument.EntityArgumentType;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.Text;
 import top.bearcabbage.twodimensional_bedwars.game.ArenaManager;
 import top.bearcabbage.twodimensional_bedwars.api.IArena;
 import top.bearcabbage.twodimensional_bedwars.component.Arena;
+import top.bearcabbage.twodimensional_bedwars.component.MapManager;
+import top.bearcabbage.twodimensional_bedwars.component.RestoreStats;
+import top.bearcabbage.twodimensional_bedwars.game.ArenaProfiler;
+import top.bearcabbage.twodimensional_bedwars.game.MatchmakingQueue;
+import top.bearcabbage.twodimensional_bedwars.game.TickScheduler;
+import top.bearcabbage.twodimensional_bedwars.world.ChunkLeases;
 
 public class BedWarsCommand {
     public static void register(CommandDispatcher<ServerCommandSource> dispatcher) {
@@ -22,6 +33,13 @@ public class BedWarsCommand {
                 .then(CommandManager.literal("team")
                         .then(CommandManager.argument("id", IntegerArgumentType.integer(1, 4))
                                 .executes(BedWarsCommand::setTeam)))
+                .then(CommandManager.literal("queue")
+                        .executes(BedWarsCommand::joinQueue)
+                        .then(CommandManager.literal("leave")
+                                .executes(BedWarsCommand::leaveQueue))
+                        .then(CommandManager.literal("with")
+                                .then(CommandManager.argument("player", EntityArgumentType.player())
+                                        .executes(BedWarsCommand::queueWith))))
                 .then(CommandManager.literal("spectate")
                         .executes(BedWarsCommand::spectate))
                 .then(CommandManager.literal("leave")
@@ -31,16 +49,97 @@ public class BedWarsCommand {
                         .executes(BedWarsCommand::stopGame))
                 .then(CommandManager.literal("reload")
                         .requires(source -> source.hasPermissionLevel(2))
-                        .executes(BedWarsCommand::reloadConfig)));
+                        .executes(BedWarsCommand::reloadConfig))
+                .then(CommandManager.literal("leases")
+                        .requires(source -> source.hasPermissionLevel(2))
+                        .executes(BedWarsCommand::showLeases))
+                .then(CommandManager.literal("scheduler")
+                        .requires(source -> source.hasPermissionLevel(2))
+                        .executes(BedWarsCommand::showScheduler))
+                .then(CommandManager.literal("profile")
+                        .requires(source -> source.hasPermissionLevel(2))
+                        .executes(context -> startProfile(context, 10))
+                        .then(CommandManager.argument("seconds", IntegerArgumentType.integer(1, 300))
+                                .executes(context -> startProfile(context,
+                                        IntegerArgumentType.getInteger(context, "seconds")))))
+                .then(CommandManager.literal("restore")
+                        .requires(source -> source.hasPermissionLevel(2))
+                        .then(CommandManager.literal("status")
+                                .executes(BedWarsCommand::showRestoreStatus))
+                        .then(CommandManager.literal("snapshot")
+                                .executes(BedWarsCommand::snapshotArenas))
+                        .then(CommandManager.literal("reset")
+                                .executes(BedWarsCommand::scheduleFileReset))));
     }
 
     private static void broadcast(org.slf4j.Logger logger, net.minecraft.server.MinecraftServer server, Text message) {
         server.getPlayerManager().getPlayerList().forEach(p -> p.sendMessage(message, false));
     }
 
+    private static int joinQueue(CommandContext<ServerCommandSource> context) {
+        ServerPlayerEntity player = context.getSource().getPlayer();
+        if (player == null)
+            return 0;
+        MatchmakingQueue queue = ArenaManager.getInstance().getQueue();
+        switch (queue.join(player)) {
+            case QUEUED -> {
+                context.getSource().sendMessage(Text.translatable("two-dimensional-bedwars.queue.joined", queue.size()));
+                return 1;
+            }
+            case ALREADY_QUEUED -> context.getSource()
+                    .sendError(Text.translatable("two-dimensional-bedwars.queue.already_queued"));
+            default -> context.getSource().sendError(Text.translatable("two-dimensional-bedwars.queue.in_arena"));
+        }
+        return 0;
+    }
+
+    private static int leaveQueue(CommandContext<ServerCommandSource> context) {
+        ServerPlayerEntity player = context.getSource().getPlayer();
+        if (player == null)
+            return 0;
+        if (ArenaManager.getInstance().getQueue().leave(player.getUuid()) == MatchmakingQueue.QueueResult.LEFT) {
+            context.getSource().sendMessage(Text.translatable("two-dimensional-bedwars.queue.left"));
+            return 1;
+        }
+        context.getSource().sendError(Text.translatable("two-dimensional-bedwars.queue.not_queued"));
+        return 0;
+    }
+
+    private static int queueWith(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        ServerPlayerEntity player = context.getSource().getPlayer();
+        ServerPlayerEntity target = EntityArgumentType.getPlayer(context, "player");
+        if (player == null || player == target)
+            return 0;
+        switch (ArenaManager.getInstance().getQueue().requestParty(player, target)) {
+            case REQUESTED -> {
+                context.getSource().sendMessage(
+                        Text.translatable("two-dimensional-bedwars.queue.party_sent", target.getDisplayName()));
+                target.sendMessage(Text.translatable("two-dimensional-bedwars.queue.party_request",
+                        player.getDisplayName(), player.getName().getString()), false);
+                return 1;
+            }
+            case FORMED -> {
+                context.getSource().sendMessage(
+                        Text.translatable("two-dimensional-bedwars.queue.party_formed", target.getDisplayName()));
+                target.sendMessage(
+                        Text.translatable("two-dimensional-bedwars.queue.party_formed", player.getDisplayName()), false);
+                return 1;
+            }
+            case FULL -> context.getSource().sendError(Text.translatable("two-dimensional-bedwars.queue.party_full"));
+            case IN_ARENA -> context.getSource().sendError(Text.translatable("two-dimensional-bedwars.queue.in_arena"));
+        }
+        return 0;
+    }
+
     private static int spectate(CommandContext<ServerCommandSource> context) {
-        IArena arena = ArenaManager.getInstance().getArena();
-        if (arena == null || arena.getStatus() != IArena.GameStatus.PLAYING) {
+        IArena arena = null;
+        for (IArena candidate : ArenaManager.getInstance().getArenas()) {
+            if (candidate.getStatus() == IArena.GameStatus.PLAYING) {
+                arena = candidate;
+                break;
+            }
+        }
+        if (arena == null) {
             context.getSource().sendError(Text.translatable("two-dimensional-bedwars.command.spectate.fail"));
             return 0;
         }
@@ -62,12 +161,19 @@ public class BedWarsCommand {
     }
 
     private static int joinGame(CommandContext<ServerCommandSource> context) {
-        IArena arena = ArenaManager.getInstance().getArena();
-        if (arena == null)
-            return 0;
         ServerPlayerEntity player = context.getSource().getPlayer();
         if (player == null)
             return 0;
+        if (ArenaManager.getInstance().getArena(player) != null) {
+            context.getSource().sendError(Text.translatable("two-dimensional-bedwars.command.join_fail_already"));
+            return 0;
+        }
+        IArena arena = ArenaManager.getInstance().findJoinable();
+        if (arena == null) {
+            context.getSource().sendError(Text.translatable("two-dimensional-bedwars.command.join_fail_running"));
+            return 0;
+        }
+        ArenaManager.getInstance().getQueue().leave(player.getUuid());
 
         if (arena instanceof Arena impl) {
             Arena.JoinResult result = impl.joinPlayer(player);
@@ -106,10 +212,131 @@ public class BedWarsCommand {
 
     private static int reloadConfig(CommandContext<ServerCommandSource> context) {
         top.bearcabbage.twodimensional_bedwars.config.GameConfig.load();
+        // Template regions may have changed; running restores keep the template they started with
+        ServerWorld blueprint = context.getSource().getServer()
+                .getWorld(net.minecraft.registry.RegistryKey.of(net.minecraft.registry.RegistryKeys.WORLD,
+                        net.minecraft.util.Identifier.of("two-dimensional-bedwars", "blueprint")));
+        MapManager.reloadTemplate(blueprint);
         context.getSource().sendMessage(Text.translatable("two-dimensional-bedwars.command.reload_success"));
         return 1;
     }
 
+    private static int showScheduler(CommandContext<ServerCommandSource> context) {
+        List<TickScheduler.Job> jobs = ArenaManager.getInstance().getScheduler().getJobs();
+        context.getSource().sendMessage(
+                Text.translatable("two-dimensional-bedwars.command.scheduler.header", jobs.size()));
+        for (TickScheduler.Job job : jobs) {
+            context.getSource().sendMessage(Text.translatable("two-dimensional-bedwars.command.scheduler.job",
+                    job.getName(), job.getPeriod(), job.getPhase(), job.getRuns(),
+                    String.format("%.1f", job.getAverageMicros()), String.format("%.1f", job.getMaxMicros())));
+        }
+        return jobs.size();
+    }
+
+    private static int startProfile(CommandContext<ServerCommandSource> context, int seconds) {
+        ServerCommandSource source = context.getSource();
+        boolean started = ArenaProfiler.start(seconds, report -> {
+            double windowSeconds = report.durationNanos() / 1_000_000_000.0;
+            source.sendMessage(Text.translatable("two-dimensional-bedwars.command.profile.header",
+                    String.format("%.1f", windowSeconds),
+                    String.format("%.2f", report.serverAllocBytes() / 1048576.0 / windowSeconds)));
+            for (ArenaProfiler.Entry entry : report.entries()) {
+                source.sendMessage(Text.translatable("two-dimensional-bedwars.command.profile.entry", entry.name(),
+                        entry.count(), String.format("%.1f", entry.p50Nanos() / 1000.0),
+                        String.format("%.1f", entry.p99Nanos() / 1000.0),
+                        String.format("%.1f", entry.maxNanos() / 1000.0),
+                        String.format("%.1f", entry.totalNanos() / 1_000_000.0),
+                        String.format("%.1f", entry.allocBytes() / 1024.0 / windowSeconds)));
+            }
+        });
+        if (!started) {
+            source.sendError(Text.translatable("two-dimensional-bedwars.command.profile.busy"));
+            return 0;
+        }
+        source.sendMessage(Text.translatable("two-dimensional-bedwars.command.profile.started", seconds));
+        return 1;
+    }
+
+    private static int showLeases(CommandContext<ServerCommandSource> context) {
+        List<ChunkLeases.Lease> leases = ChunkLeases.getActiveLeases();
+        context.getSource().sendMessage(
+                Text.translatable("two-dimensional-bedwars.command.leases.header", leases.size()));
+        for (ServerWorld world : context.getSource().getServer().getWorlds()) {
+            int leased = ChunkLeases.getLeasedChunkCount(world);
+            if (leased == 0)
+                continue;
+            context.getSource().sendMessage(Text.translatable("two-dimensional-bedwars.command.leases.world",
+                    world.getRegistryKey().getValue().toString(), leased));
+            for (ChunkLeases.Lease lease : leases) {
+                if (lease.getWorld() == world) {
+                    context.getSource().sendMessage(Text.translatable("two-dimensional-bedwars.command.leases.entry",
+                            lease.getPurpose().name(), lease.getChunkCount()));
+                }
+            }
+        }
+        return leases.size();
+    }
+
+    private static int showRestoreStatus(CommandContext<ServerCommandSource> context) {
+        List<RestoreStats> active = MapManager.getActiveStats();
+        context.getSource().sendMessage(
+                Text.translatable("two-dimensional-bedwars.command.restore.status.active_header", active.size()));
+        for (RestoreStats stats : active) {
+            long eta = stats.getEtaMillis();
+            context.getSource().sendMessage(Text.translatable("two-dimensional-bedwars.command.restore.status.active",
+                    stats.getWorld().getValue().toString(), stats.getMode(), Math.round(stats.getProgress() * 100),
+                    stats.getScanned(), stats.getChanged(), eta < 0 ? "?" : String.valueOf(eta / 1000),
+                    String.format("%.2f", stats.getAverageTickMillis()),
+                    String.format("%.2f", stats.getMaxTickMillis())));
+        }
+
+        List<RestoreStats> history = MapManager.getHistory();
+        if (!history.isEmpty()) {
+            context.getSource().sendMessage(
+                    Text.translatable("two-dimensional-bedwars.command.restore.status.history_header"));
+        }
+        java.text.SimpleDateFormat time = new java.text.SimpleDateFormat("HH:mm:ss");
+        for (RestoreStats stats : history) {
+            context.getSource().sendMessage(Text.translatable("two-dimensional-bedwars.command.restore.status.history",
+                    time.format(new java.util.Date(stats.getStartMillis())), stats.getWorld().getValue().toString(),
+                    stats.getMode(), stats.getElapsedMillis(), stats.getTicks(), stats.getScanned(),
+                    Math.round(stats.getThroughput()), stats.getChanged(), stats.getChunksResent()));
+        }
+        return active.size();
+    }
+
+    private static int snapshotArenas(CommandContext<ServerCommandSource> context) {
+        List<ServerWorld> worlds = ArenaManager.getInstance().getBuffers()
+                .getReadyWorlds();
+        if (worlds.isEmpty()) {
+            context.getSource().sendError(Text.translatable("two-dimensional-bedwars.command.restore.snapshot_none"));
+            return 0;
+        }
+        for (ServerWorld world : worlds) {
+            try {
+                top.bearcabbage.twodimensional_bedwars.mechanic.InternalAdapter.snapshotDimension(world);
+                context.getSource().sendMessage(Text.translatable("two-dimensional-bedwars.command.restore.snapshot",
+                        world.getRegistryKey().getValue().toString()));
+            } catch (java.io.IOException e) {
+                e.printStackTrace();
+                context.getSource().sendError(Text.translatable("two-dimensional-bedwars.command.restore.snapshot_fail",
+                        world.getRegistryKey().getValue().toString()));
+            }
+        }
+        return worlds.size();
+    }
+
+    private static int scheduleFileReset(CommandContext<ServerCommandSource> context) {
+        int dimensions = ArenaManager.getInstance().getBuffers().scheduleFileReset(context.getSource().getServer());
+        if (dimensions == 0) {
+            context.getSource().sendError(Text.translatable("two-dimensional-bedwars.command.restore.reset_none"));
+            return 0;
+        }
+        context.getSource().sendMessage(
+                Text.translatable("two-dimensional-bedwars.command.restore.reset_scheduled", dimensions));
+        return dimensions;
+    }
+
     private static int setTeam(CommandContext<ServerCommandSource> context) {
         int id = IntegerArgumentType.getInteger(context, "id");
         // Map ID to Name
@@ -140,7 +367,17 @@ public class BedWarsCommand {
             default -> Text.literal(teamName);
         };
 
-        IArena arena = ArenaManager.getInstance().getArena();
+        ServerPlayerEntity player = context.getSource().getPlayer();
+        if (player == null)
+            return 0;
+        IArena arena = ArenaManager.getInstance().getArena(player);
+        if (arena == null && ArenaManager.getInstance().getQueue().setPreferredTeam(player.getUuid(), teamName)) {
+            context.getSource().sendMessage(
+                    Text.translatable("two-dimensional-bedwars.queue.team_selected", localizedTeamName));
+            return 1;
+        }
+        if (arena == null)
+            arena = ArenaManager.getInstance().findJoinable();
         if (arena instanceof Arena impl) {
             try {
                 if (impl.setPreferredTeam(context.getSource().getPlayer().getUuid(), teamName)) {
@@ -160,8 +397,20 @@ public class BedWarsCommand {
     }
 
     private static int startGame(CommandContext<ServerCommandSource> context) {
+        // The sender's own arena, otherwise the waiting arena with the most players
+        IArena arena = context.getSource().getPlayer() != null
+                ? ArenaManager.getInstance().getArena(context.getSource().getPlayer())
+                : null;
+        if (arena == null) {
+            for (IArena candidate : ArenaManager.getInstance().getArenas()) {
+                if (candidate.getStatus() == IArena.GameStatus.WAITING && (arena == null
+                        || candidate.getParticipantUUIDs().size() > arena.getParticipantUUIDs().size())) {
+                    arena = candidate;
+                }
+            }
+        }
         // -1 indicates auto-detection of team count based on players
-        boolean success = ArenaManager.getInstance().startGame(context.getSource().getWorld(), -1);
+        boolean success = ArenaManager.getInstance().startGame(arena, context.getSource().getWorld(), -1);
         if (success) {
             broadcast(null, context.getSource().getServer(),
                     Text.translatable("two-dimensional-bedwars.command.start_success"));
@@ -173,7 +422,20 @@ public class BedWarsCommand {
     }
 
     private static int stopGame(CommandContext<ServerCommandSource> context) {
-        boolean success = ArenaManager.getInstance().stopGame();
+        // The sender's own arena, otherwise every arena with a match
+        IArena own = context.getSource().getPlayer() != null
+                ? ArenaManager.getInstance().getArena(context.getSource().getPlayer())
+                : null;
+        boolean success = false;
+        if (own != null) {
+            success = ArenaManager.getInstance().stopGame(own);
+        } else {
+            for (IArena arena : ArenaManager.getInstance().getArenas()) {
+                if (arena.getStatus() != IArena.GameStatus.WAITING) {
+                    success |= ArenaManager.getInstance().stopGame(arena);
+                }
+            }
+        }
         if (success) {
             broadcast(null, context.getSource().getServer(),
                     Text.translatable("two-dimensional-bedwars.command.stop_success"));
@@ -192,7 +454,11 @@ public class BedWarsCommand {
             return 0;
 
         java.util.UUID uuid = player.getUuid();
-        IArena arena = ArenaManager.getInstance().getArena();
+        IArena arena = ArenaManager.getInstance().getArena(player);
+        if (arena == null && ArenaManager.getInstance().getQueue().leave(uuid) == MatchmakingQueue.QueueResult.LEFT) {
+            context.getSource().sendMessage(Text.translatable("two-dimensional-bedwars.queue.left"));
+            return 1;
+        }
 
         // 1. Spectator or Not in Game? Leave immediately (TP to Spawn)
         boolean isParticipant = false;
@@ -9,24 +9,27 @@ import java.util.UUID;
 import net.minecraft.block.BedBlock;
 import net.minecraft.block.BlockState;
 import net.minecraft.item.Items;
-import net.minecraft.registry.RegistryKey;
-import net.minecraft.registry.RegistryKeys;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
-import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.GameMode;
-import net.minecraft.world.World;
 import top.bearcabbage.twodimensional_bedwars.api.IArena;
 import top.bearcabbage.twodimensional_bedwars.api.ITeam;
 import top.bearcabbage.twodimensional_bedwars.config.GameConfig;
+import top.bearcabbage.twodimensional_bedwars.game.ArenaManager;
+import top.bearcabbage.twodimensional_bedwars.game.ArenaProfiler;
 import top.bearcabbage.twodimensional_bedwars.game.ScoreboardManager;
+import top.bearcabbage.twodimensional_bedwars.game.TickScheduler;
 import top.bearcabbage.twodimensional_bedwars.mechanic.GamePlayingTask;
+import top.bearcabbage.twodimensional_bedwars.world.ChunkLeases;
+import top.bearcabbage.twodimensional_bedwars.world.GameEntities;
+import top.bearcabbage.twodimensional_bedwars.world.LightBatch;
 
 public class Arena implements IArena {
+    private final String id;
     private GameStatus status;
     private final List<ITeam> teams;
     private ScoreboardManager scoreboardManager;
@@ -41,13 +44,23 @@ public class Arena implements IArena {
 
     private ServerWorld gameWorld;
     private GamePlayingTask gamePlayingTask;
+    // Periodic match work registered with the shared scheduler while PLAYING
+    private final List<TickScheduler.Job> matchJobs = new ArrayList<>();
+    // Arena dimensions shared by all arenas, restored in the background while idle
+    private final ArenaBuffers buffers;
 
     // Countdown and Restore State
     private int ticksUntilStart = -1;
     private boolean mapRestoreComplete = false;
     private int requestedTeamCount = -1;
-
-    public Arena() {
+    // Started by the matchmaking queue, so teams are capped at the matchmaking team size
+    private boolean matchmade;
+    // Restore progress shown to joined players while the game world is still being restored
+    private net.minecraft.entity.boss.ServerBossBar restoreBar;
+
+    public Arena(String id, ArenaBuffers buffers) {
+        this.id = id;
+        this.buffers = buffers;
         this.status = GameStatus.WAITING;
         this.teams = new ArrayList<>();
         this.playerTeamMap = new HashMap<>();
@@ -60,23 +73,24 @@ public class Arena implements IArena {
         this.publicGenerators = new ArrayList<>();
     }
 
-    private void setChunksForced(ServerWorld world, boolean forced) {
-        // Arena 1: (0,0) radius ~120 blocks -> -8 to 8 chunks
-        for (int cx = -8; cx <= 8; cx++) {
-            for (int cz = -8; cz <= 8; cz++) {
-                world.setChunkForced(cx, cz, forced);
-            }
-        }
-        // Arena 2: (400,0) -> Chunk 25. Radius ~120 blocks -> 17 to 33
-        for (int cx = 17; cx <= 33; cx++) {
-            for (int cz = -8; cz <= 8; cz++) {
-                world.setChunkForced(cx, cz, forced);
-            }
+    // Chunk leases on the game world: countdown, running match, spectators
+    private ChunkLeases.Lease warmupLease;
+    private ChunkLeases.Lease matchLease;
+    private ChunkLeases.Lease spectateLease;
+
+    private static ChunkLeases.Lease releaseLease(ChunkLeases.Lease lease) {
+        if (lease != null) {
+            lease.release();
         }
+        return null;
     }
 
     // Generators not belonging to any team
     private final List<OreGenerator> publicGenerators;
+    // Fires team and public generators alike
+    private final GeneratorWheel generatorWheel = new GeneratorWheel();
+    // Client-side level and countdown text above the generators
+    private final GeneratorHolograms generatorHolograms = new GeneratorHolograms();
 
     private final java.util.Set<BlockPos> placedBlocks;
     private final java.util.Set<BlockPos> blastProofBlocks; // NEW
@@ -117,6 +131,13 @@ public class Arena implements IArena {
     // But since we are inside Arena, we might not have a permanent server ref if
     // gameWorld is null.
     // However, `tick` provides `world`.
+    // Participants and spectators
+    public java.util.Set<UUID> getAudienceUUIDs() {
+        java.util.Set<UUID> targets = new java.util.HashSet<>(getParticipantUUIDs());
+        targets.addAll(spectators);
+        return targets;
+    }
+
     public void broadcastToGame(MinecraftServer server, Text message) {
         java.util.Set<UUID> targets = new java.util.HashSet<>();
         targets.addAll(getParticipantUUIDs());
@@ -168,15 +189,26 @@ public class Arena implements IArena {
         }
     }
 
+    /** Team a waiting player asked for, or null. */
+    public String getPreferredTeam(UUID uuid) {
+        return preferredTeams.get(uuid);
+    }
+
     public boolean setPreferredTeam(UUID uuid, String teamName) {
         if (status == GameStatus.WAITING || status == GameStatus.STARTING) {
             preferredTeams.put(uuid, teamName);
             waitingPlayers.add(uuid); // Join Game
+            ArenaManager.getInstance().bindPlayer(uuid, this);
             return true;
         }
         return false;
     }
 
+    @Override
+    public String getId() {
+        return id;
+    }
+
     @Override
     public GameStatus getStatus() {
         return status;
@@ -195,6 +227,10 @@ public class Arena implements IArena {
         return publicGenerators;
     }
 
+    public GeneratorWheel getGeneratorWheel() {
+        return generatorWheel;
+    }
+
     public enum JoinResult {
         SUCCESS,
         GAME_RUNNING,
@@ -209,6 +245,7 @@ public class Arena implements IArena {
             return JoinResult.ALREADY_JOINED;
         }
         waitingPlayers.add(player.getUuid());
+        ArenaManager.getInstance().bindPlayer(player.getUuid(), this);
         return JoinResult.SUCCESS;
     }
 
@@ -230,7 +267,11 @@ public class Arena implements IArena {
         top.bearcabbage.twodimensional_bedwars.data.BedWarsPlayerData.saveBackup(player);
         player.getInventory().clear();
 
+        if (spectators.isEmpty()) {
+            spectateLease = ChunkLeases.acquireArena(gameWorld, ChunkLeases.Purpose.SPECTATE);
+        }
         spectators.add(player.getUuid());
+        ArenaManager.getInstance().bindPlayer(player.getUuid(), this);
 
         // Teleport to Arena 1 Center
         GameConfig.MapPoint center = config.arenaRestoreConfig.arena1Bounds.center;
@@ -246,8 +287,34 @@ public class Arena implements IArena {
         leavePlayer(player, false);
     }
 
+    /**
+     * Lets go of a finished match's world before it is unloaded: spectators
+     * still watching it leave the arena as with /bedwars leave, and the arena
+     * forgets the world. Does nothing while a match holds the world.
+     */
+    public void releaseWorld(ServerWorld world) {
+        if (gameWorld != world || status != GameStatus.WAITING)
+            return;
+        MinecraftServer server = world.getServer();
+        for (UUID uuid : new ArrayList<>(spectators)) {
+            ServerPlayerEntity player = server.getPlayerManager().getPlayer(uuid);
+            if (player != null) {
+                leavePlayer(player);
+            } else {
+                // Offline: their backup is restored when they join again
+                spectators.remove(uuid);
+                ArenaManager.getInstance().unbindPlayer(uuid, this);
+            }
+        }
+        spectateLease = releaseLease(spectateLease);
+        gameWorld = null;
+    }
+
     public void leavePlayer(ServerPlayerEntity player, boolean skipRestore) {
         UUID uuid = player.getUuid();
+        if (restoreBar != null) {
+            restoreBar.removePlayer(player);
+        }
 
         // 1. Check Team (Active Player)
         ITeam team = playerTeamMap.get(uuid);
@@ -303,6 +370,9 @@ public class Arena implements IArena {
             }
             cleanupPlayer(player);
             spectators.remove(uuid);
+            if (spectators.isEmpty()) {
+                spectateLease = releaseLease(spectateLease);
+            }
         }
         // 3. Check Waiting
         else if (waitingPlayers.contains(uuid)) {
@@ -318,6 +388,7 @@ public class Arena implements IArena {
 
         // 4. Preferred Teams cleanup
         preferredTeams.remove(uuid);
+        ArenaManager.getInstance().unbindPlayer(uuid, this);
 
         // Broadcast Leave (Arena Only)
         Text leaveMsg = Text.translatable("two-dimensional-bedwars.command.leave.broadcast", player.getDisplayName())
@@ -333,6 +404,9 @@ public class Arena implements IArena {
         // Clear Scoreboard
         player.networkHandler.sendPacket(new net.minecraft.network.packet.s2c.play.ScoreboardDisplayS2CPacket(
                 net.minecraft.scoreboard.ScoreboardDisplaySlot.SIDEBAR, null));
+        if (scoreboardManager != null) {
+            scoreboardManager.removeViewer(player.getUuid());
+        }
     }
 
     @Override
@@ -365,11 +439,21 @@ public class Arena implements IArena {
     }
 
     public void tick(ServerWorld world) {
+        long profile = ArenaProfiler.begin();
+        tickStatus(world);
+        ArenaProfiler.end(ArenaProfiler.ARENA_TICK, profile);
+    }
+
+    private void tickStatus(ServerWorld world) {
         // top.bearcabbage.twodimensional_bedwars.TwoDimensionalBedWars.LOGGER.info("Arena
         // Tick: " + System.identityHashCode(this) + " Status: " + status);
         if (status == GameStatus.STARTING) {
             ticksUntilStart--;
 
+            if (ticksUntilStart % 10 == 0) {
+                updateRestoreBar(world.getServer());
+            }
+
             // Notification (Action Bar)
             if (ticksUntilStart % 20 == 0 && ticksUntilStart > 0) {
                 int sec = ticksUntilStart / 20;
@@ -403,37 +487,23 @@ public class Arena implements IArena {
             if (gamePlayingTask == null) {
                 gamePlayingTask = new GamePlayingTask(this);
             }
+            long profile = ArenaProfiler.begin();
             gamePlayingTask.run(this.gameWorld != null ? this.gameWorld : world);
-
-            // NPC LookAt Logic (Every 10 ticks)
-            if (world.getTime() % 10 == 0 && this.gameWorld != null) {
-                // Villagers
-                for (net.minecraft.entity.passive.VillagerEntity entity : this.gameWorld.getEntitiesByType(
-                        net.minecraft.entity.EntityType.VILLAGER, e -> e.getCommandTags().contains("BedWarsShop"))) {
-                    lookAtNearestPlayer(entity);
-                }
-                // Piglins
-                for (net.minecraft.entity.mob.PiglinEntity entity : this.gameWorld.getEntitiesByType(
-                        net.minecraft.entity.EntityType.PIGLIN, e -> e.getCommandTags().contains("BedWarsShop"))) {
-                    lookAtNearestPlayer(entity);
-                }
-            }
+            ArenaProfiler.end(ArenaProfiler.GENERATORS, profile);
 
             // Food & Saturation
+            profile = ArenaProfiler.begin();
             if (this.gameWorld != null) {
                 for (ServerPlayerEntity p : this.gameWorld.getPlayers()) {
                     p.getHungerManager().setFoodLevel(20);
                     p.getHungerManager().setSaturationLevel(20.0f);
                 }
             }
-
-            // Tick Teams (Upgrades & Generators)
-            for (ITeam team : teams) {
-                team.tick(this.gameWorld != null ? this.gameWorld : world);
-            }
+            ArenaProfiler.end(ArenaProfiler.PLAYERS, profile);
 
             // Disable 2x2 Crafting: Clear Result Slot (Slot 0)
             if (this.gameWorld != null) {
+                profile = ArenaProfiler.begin();
                 this.gameWorld.getPlayers().forEach(player -> {
                     // Check if not in a special container (player inventory container ID is 0)
                     if (player.currentScreenHandler == player.playerScreenHandler) {
@@ -446,12 +516,11 @@ public class Arena implements IArena {
                         }
                     }
                 });
+                ArenaProfiler.end(ArenaProfiler.PLAYERS, profile);
 
+                profile = ArenaProfiler.begin();
                 checkPortals(this.gameWorld);
-
-                if (scoreboardManager != null) {
-                    scoreboardManager.update();
-                }
+                ArenaProfiler.end(ArenaProfiler.PORTALS, profile);
             }
         }
 
@@ -550,11 +619,13 @@ public class Arena implements IArena {
         GameConfig.MapPoint c1 = config.arenaRestoreConfig.arena1Bounds.center;
         GameConfig.MapPoint c2 = config.arenaRestoreConfig.arena2Bounds.center;
 
-        buildPortalFrame(world, new BlockPos(c1.x, c1.y + config.centerPortalOffsetY, c1.z));
-        buildPortalFrame(world, new BlockPos(c2.x, c2.y + config.centerPortalOffsetY, c2.z));
+        LightBatch lightBatch = new LightBatch(world);
+        buildPortalFrame(lightBatch, new BlockPos(c1.x, c1.y + config.centerPortalOffsetY, c1.z));
+        buildPortalFrame(lightBatch, new BlockPos(c2.x, c2.y + config.centerPortalOffsetY, c2.z));
+        lightBatch.flush();
     }
 
-    private void buildPortalFrame(ServerWorld world, BlockPos center) {
+    private void buildPortalFrame(LightBatch lightBatch, BlockPos center) {
         // Center of the base. Relative to center, let's build axis X.
         // x-2 to x+2 (5 blocks wide). y to y+5 (6 blocks high).
         // Crying Obsidian Frame.
@@ -566,11 +637,11 @@ public class Arena implements IArena {
                 BlockPos pos = center.add(0, h, z);
                 boolean isEdge = (z == -2 || z == 2 || h == 0 || h == 5);
                 if (isEdge) {
-                    world.setBlockState(pos, frame);
+                    lightBatch.setBlockState(pos, frame);
                     // Protect it?
                     getData().recordBlastProof(pos); // Actually map blocks are protected anyway, but ensure it.
                 } else {
-                    world.setBlockState(pos, net.minecraft.block.Blocks.AIR.getDefaultState());
+                    lightBatch.setBlockState(pos, net.minecraft.block.Blocks.AIR.getDefaultState());
                 }
             }
         }
@@ -588,8 +659,10 @@ public class Arena implements IArena {
         int y1 = c1.y + config.centerPortalOffsetY;
         int y2 = c2.y + config.centerPortalOffsetY;
 
-        updatePortalState(world, new BlockPos(c1.x, y1, c1.z), inner);
-        updatePortalState(world, new BlockPos(c2.x, y2, c2.z), inner);
+        LightBatch lightBatch = new LightBatch(world);
+        updatePortalState(lightBatch, new BlockPos(c1.x, y1, c1.z), inner);
+        updatePortalState(lightBatch, new BlockPos(c2.x, y2, c2.z), inner);
+        lightBatch.flush();
 
         if (open) {
             broadcastToGame(world.getServer(),
@@ -605,42 +678,62 @@ public class Arena implements IArena {
         }
     }
 
-    private void updatePortalState(ServerWorld world, BlockPos center, BlockState state) {
+    private void updatePortalState(LightBatch lightBatch, BlockPos center, BlockState state) {
         for (int z = -1; z <= 1; z++) {
             for (int h = 1; h <= 4; h++) {
-                world.setBlockState(center.add(0, h, z), state);
+                lightBatch.setBlockState(center.add(0, h, z), state);
             }
         }
     }
 
     // Called by command
     public void startGame(ServerWorld world, int teamCount) {
+        startGame(world, teamCount, false);
+    }
+
+    // Called by the matchmaking queue
+    public void startMatchmadeGame(ServerWorld world, int teamCount) {
+        startGame(world, teamCount, true);
+    }
+
+    private void startGame(ServerWorld world, int teamCount, boolean matchmade) {
         if (status != GameStatus.WAITING)
             return;
+        if (buffers.size() > 0 && !buffers.hasFree()) {
+            // Every arena dimension is held by another arena's match
+            broadcastToGame(world.getServer(), Text.translatable("two-dimensional-bedwars.arena.no_free_dimension"));
+            return;
+        }
 
         System.out.println("Initiating Game Start Sequence...");
         this.requestedTeamCount = teamCount;
+        this.matchmade = matchmade;
         this.status = GameStatus.STARTING;
         this.ticksUntilStart = 10 * 20; // 10 seconds
         this.mapRestoreComplete = false;
 
-        // Trigger Map Restore
+        // Take an arena dimension; usually one was already restored in the background
         MinecraftServer server = world.getServer();
-        Identifier matchId = Identifier.of("two-dimensional-bedwars", "arena");
-        RegistryKey<World> gameWorldKey = RegistryKey.of(RegistryKeys.WORLD, matchId);
-        ServerWorld targetGameWorld = server.getWorld(gameWorldKey);
+        ServerWorld targetGameWorld = buffers.acquire(readyWorld -> {
+            System.out.println("Map Restore Complete callback received.");
+            setupCenterPortals(readyWorld); // Place portal frames after restore
+            this.mapRestoreComplete = true; // Signals tick -> beginMatch -> initialize
+        });
 
         if (targetGameWorld == null) {
             System.out.println("Target Game Dimension not found, using Overworld (dangerous for restore!)");
             targetGameWorld = server.getOverworld();
+            this.gameWorld = targetGameWorld;
+            triggerMapRestore(targetGameWorld, () -> {
+                System.out.println("Map Restore Complete callback received.");
+                setupCenterPortals(gameWorld); // Place portal frames after restore
+                this.mapRestoreComplete = true; // Signals tick -> beginMatch -> initialize
+            });
         }
         this.gameWorld = targetGameWorld;
-
-        triggerMapRestore(targetGameWorld, () -> {
-            System.out.println("Map Restore Complete callback received.");
-            setupCenterPortals(gameWorld); // Place portal frames after restore
-            this.mapRestoreComplete = true; // Signals tick -> beginMatch -> initialize
-        });
+        // Hold the arena through the countdown; the restore has its own lease
+        warmupLease = releaseLease(warmupLease);
+        warmupLease = ChunkLeases.acquireArena(targetGameWorld, ChunkLeases.Purpose.WARMUP);
 
         // Removed: Logic that auto-added all online players.
         // Players must now explicitly join via /bedwars join or /bedwars team.
@@ -648,21 +741,16 @@ public class Arena implements IArena {
 
     // Internal Method to Start Match
     private void beginMatch(ServerWorld world) {
-        // Clear ALL Entities in Arena (Mobs, Items, Projectiles, etc.) except Players
+        clearRestoreBar();
+        // Clear every entity left in the game world (items, mobs, projectiles) except players.
+        // Arena dimensions track everything that loads into them; the overworld fallback only what we spawn.
         if (this.gameWorld != null) {
-            GameConfig.MapPoint min1 = config.arenaRestoreConfig.arena1Bounds.getMinPt();
-            GameConfig.MapPoint max2 = config.arenaRestoreConfig.arena2Bounds.getMaxPt();
-
-            this.gameWorld.getEntitiesByType(
-                    net.minecraft.util.TypeFilter.instanceOf(net.minecraft.entity.Entity.class),
-                    new net.minecraft.util.math.Box(
-                            min1.x - 100, -64, min1.z - 100,
-                            max2.x + 100, 320, max2.z + 100),
-                    e -> !(e instanceof net.minecraft.entity.player.PlayerEntity))
-                    .forEach(net.minecraft.entity.Entity::discard);
+            GameEntities.open(this.gameWorld, buffers.isArenaWorld(this.gameWorld)).discardAll();
         }
 
         initialize(this.gameWorld, this.requestedTeamCount);
+        // The match lease taken in initialize() covers the arena from here on
+        warmupLease = releaseLease(warmupLease);
 
         // Validate Team Balance
         boolean balanced = true;
@@ -687,7 +775,12 @@ public class Arena implements IArena {
             this.playerTeamMap.clear();
             this.preferredTeams.clear();
             this.publicGenerators.clear();
+            this.generatorWheel.clear();
             this.status = GameStatus.WAITING;
+            ArenaManager.getInstance().unbindAll(this);
+            discardGameEntities();
+            matchLease = releaseLease(matchLease);
+            buffers.release(this.gameWorld);
             return;
         }
 
@@ -696,6 +789,7 @@ public class Arena implements IArena {
         // world.getServer());
         gamePlayingTask = new GamePlayingTask(this);
         respawnTargets.clear();
+        scheduleMatchJobs();
 
         // Setup Scoreboard
         if (this.scoreboardManager != null) {
@@ -738,20 +832,62 @@ public class Arena implements IArena {
         waitingPlayers.clear();
     }
 
+    private void discardGameEntities() {
+        if (buffers.isArenaWorld(gameWorld)) {
+            GameEntities registry = GameEntities.get(gameWorld);
+            if (registry != null) {
+                registry.discardAll();
+            }
+        } else {
+            // Overworld fallback: stop tracking it once the match is over
+            GameEntities.close(gameWorld);
+        }
+    }
+
+    private void updateRestoreBar(MinecraftServer server) {
+        RestoreStats stats = mapRestoreComplete ? null : MapManager.getActiveStats(gameWorld);
+        if (stats == null) {
+            clearRestoreBar();
+            return;
+        }
+
+        long eta = stats.getEtaMillis();
+        Text name = Text.translatable("two-dimensional-bedwars.arena.restore_bar",
+                Math.round(stats.getProgress() * 100), eta < 0 ? "?" : String.valueOf((eta + 999) / 1000));
+        if (restoreBar == null) {
+            restoreBar = new net.minecraft.entity.boss.ServerBossBar(name,
+                    net.minecraft.entity.boss.BossBar.Color.GREEN, net.minecraft.entity.boss.BossBar.Style.PROGRESS);
+        } else {
+            restoreBar.setName(name);
+        }
+        restoreBar.setPercent(stats.getProgress());
+
+        for (UUID uuid : getAudienceUUIDs()) {
+            ServerPlayerEntity p = server.getPlayerManager().getPlayer(uuid);
+            if (p != null) {
+                restoreBar.addPlayer(p);
+            }
+        }
+    }
+
+    private void clearRestoreBar() {
+        if (restoreBar != null) {
+            restoreBar.clearPlayers();
+            restoreBar = null;
+        }
+    }
+
     private void triggerMapRestore(ServerWorld dest, Runnable callback) {
-        MinecraftServer server = dest.getServer();
-        Identifier blueprintId = Identifier.of("two-dimensional-bedwars", "blueprint");
-        RegistryKey<World> bKey = RegistryKey.of(RegistryKeys.WORLD, blueprintId);
-        ServerWorld blueprintWorld = server.getWorld(bKey);
+        ArenaTemplate template = MapManager.getTemplate();
 
-        if (blueprintWorld != null) {
+        if (template != null) {
             List<MapManager.RegionPair> regions = new ArrayList<>();
             regions.add(new MapManager.RegionPair(config.arenaRestoreConfig.arena1Template,
                     config.arenaRestoreConfig.arena1Bounds));
             regions.add(new MapManager.RegionPair(config.arenaRestoreConfig.arena2Template,
                     config.arenaRestoreConfig.arena2Bounds));
 
-            MapManager.startRestore(blueprintWorld, dest, regions, callback);
+            MapManager.startRestore(template, dest, regions, callback);
         } else {
             System.out.println("Blueprint not found, skipping restore.");
             callback.run();
@@ -759,9 +895,13 @@ public class Arena implements IArena {
     }
 
     public void stopGame() {
+        clearRestoreBar();
         // Restore Players
         if (this.gameWorld != null) {
-            setChunksForced(this.gameWorld, false);
+            // Our entities go while their chunks are still held by the match lease
+            discardGameEntities();
+            warmupLease = releaseLease(warmupLease);
+            matchLease = releaseLease(matchLease);
             MinecraftServer server = this.gameWorld.getServer();
             // Restore players via Teams
             for (ITeam team : teams) {
@@ -787,13 +927,23 @@ public class Arena implements IArena {
             // Fallback: Check for any players with backups who might not be in a team?
             // (e.g. if they weren't assigned properly or something)
             // But for OOC refactoring, we rely on Team structure.
+
+            // Players are out, start cleaning this dimension for a later match
+            buffers.release(this.gameWorld);
         }
 
+        cancelMatchJobs();
         gamePlayingTask = null;
+        generatorHolograms.clear();
+        generatorWheel.clear();
+        publicGenerators.clear();
 
         teams.clear();
         playerTeamMap.clear();
         waitingPlayers.clear();
+        // Spectators stay with the arena until they leave
+        ArenaManager.getInstance().unbindAll(this);
+        spectators.forEach(uuid -> ArenaManager.getInstance().bindPlayer(uuid, this));
         placedBlocks.clear();
         blastProofBlocks.clear(); // NEW
 
@@ -829,9 +979,13 @@ public class Arena implements IArena {
         world.setWeather(0, 0, false, false);
 
         this.gameWorld = world;
-        setChunksForced(world, true);
+        releaseLease(matchLease);
+        matchLease = ChunkLeases.acquireArena(world, ChunkLeases.Purpose.MATCH);
         teams.clear();
         playerTeamMap.clear();
+        // Generators of the last match must not fire in this one
+        publicGenerators.clear();
+        generatorWheel.clear();
 
         // Load Config
         var offsets = config.baseOffsets;
@@ -862,15 +1016,15 @@ public class Arena implements IArena {
 
         // Create Teams and Bases
         teams.add(BedWarsTeam.createTeam(world, 1, "Red", Formatting.RED.getColorValue(), c1, c2, offsets.team1, res1,
-                res2));
+                res2, generatorWheel));
         teams.add(BedWarsTeam.createTeam(world, 2, "Blue", Formatting.BLUE.getColorValue(), c1, c2, offsets.team2, res1,
-                res2));
+                res2, generatorWheel));
 
         if (activeTeams >= 4) {
             teams.add(BedWarsTeam.createTeam(world, 3, "Green", Formatting.GREEN.getColorValue(), c1, c2, offsets.team3,
-                    res1, res2));
+                    res1, res2, generatorWheel));
             teams.add(BedWarsTeam.createTeam(world, 4, "Yellow", Formatting.YELLOW.getColorValue(), c1, c2,
-                    offsets.team4, res1, res2));
+                    offsets.team4, res1, res2, generatorWheel));
         }
 
         // Spawn Public Generators
@@ -885,16 +1039,17 @@ public class Arena implements IArena {
         spawnPublicGenerators(world, c2, config.arena2NetheriteGenerators, config.netheriteGenerator,
                 Items.NETHERITE_INGOT, "Netherite");
 
-        // Pass 1: Preferences
+        // Pass 1: Preferences; matchmade teams only while they have room, hand-picked ones always
+        int teamSize = matchmade ? config.matchmaking.teamSize : Integer.MAX_VALUE;
         List<UUID> unassigned = new ArrayList<>();
         for (UUID uuid : waitingPlayers) {
             String updatedPref = preferredTeams.get(uuid);
-            // If pref is null, treat as unassigned
+            // If pref is null or the team is full, treat as unassigned
 
             boolean assigned = false;
             if (updatedPref != null) {
                 for (ITeam team : teams) {
-                    if (team.getName().equalsIgnoreCase(updatedPref)) {
+                    if (team.getName().equalsIgnoreCase(updatedPref) && team.getMembers().size() < teamSize) {
                         ((BedWarsTeam) team).addMember(uuid);
                         playerTeamMap.put(uuid, team);
                         assigned = true;
@@ -931,8 +1086,10 @@ public class Arena implements IArena {
             GameConfig.GeneratorSetting setting, net.minecraft.item.Item item, String type) {
         for (GameConfig.Offset off : offsets) {
             BlockPos pos = new BlockPos(center.x + off.dx, center.y + off.dy, center.z + off.dz);
-            publicGenerators
-                    .add(new OreGenerator(pos, item, setting.amount, setting.delaySeconds, setting.limit, type));
+            OreGenerator generator = new OreGenerator(pos, item, setting.amount, setting.delaySeconds, setting.limit,
+                    type);
+            publicGenerators.add(generator);
+            generatorWheel.add(generator);
         }
     }
 
@@ -1194,6 +1351,11 @@ public class Arena implements IArena {
         return false;
     }
 
+    public ArenaBuffers getBuffers() {
+        return buffers;
+    }
+
+    @Override
     public ServerWorld getGameWorld() {
         return this.gameWorld;
     }
@@ -1206,6 +1368,69 @@ public class Arena implements IArena {
         return gamePlayingTask != null && gamePlayingTask.isSuddenDeathActive();
     }
 
+    // Work that does not need every tick; the scheduler spreads it over the ticks of its period
+    private void scheduleMatchJobs() {
+        cancelMatchJobs();
+        TickScheduler scheduler = ArenaManager.getInstance().getScheduler();
+        String prefix = "arena " + id + " ";
+        matchJobs.add(scheduler.schedule(prefix + "beds", 10, () -> {
+            if (gamePlayingTask != null) gamePlayingTask.checkBeds(gameWorld);
+        }));
+        matchJobs.add(scheduler.schedule(prefix + "upgrades", 10, 2, () -> {
+            for (ITeam team : teams) {
+                if (team instanceof BedWarsTeam bwTeam) bwTeam.applyTeamUpgrades(gameWorld);
+            }
+        }));
+        matchJobs.add(scheduler.schedule(prefix + "shopkeepers", 10, () -> {
+            // Villagers and Piglins
+            GameEntities registry = GameEntities.get(gameWorld);
+            if (registry != null) {
+                for (net.minecraft.entity.mob.MobEntity entity : registry
+                        .getEntities(GameEntities.Kind.SHOPKEEPER, net.minecraft.entity.mob.MobEntity.class)) {
+                    lookAtNearestPlayer(entity);
+                }
+            }
+        }));
+        matchJobs.add(scheduler.schedule(prefix + "stockpiles", 10, () -> {
+            if (gameWorld == null)
+                return;
+            for (OreGenerator generator : publicGenerators) {
+                generator.updateStockpile(gameWorld);
+            }
+            for (ITeam team : teams) {
+                if (team instanceof BedWarsTeam bwTeam) {
+                    for (OreGenerator generator : bwTeam.getLiveGenerators()) {
+                        generator.updateStockpile(gameWorld);
+                    }
+                }
+            }
+        }));
+        // Only sends packets when a displayed second changes or players enter or leave range
+        matchJobs.add(scheduler.schedule(prefix + "holograms", 5, () -> {
+            if (gameWorld == null)
+                return;
+            List<OreGenerator> generators = new ArrayList<>(publicGenerators);
+            for (ITeam team : teams) {
+                if (team instanceof BedWarsTeam bwTeam) {
+                    generators.addAll(bwTeam.getLiveGenerators());
+                }
+            }
+            generatorHolograms.update(gameWorld, generatorWheel, generators);
+        }));
+        matchJobs.add(scheduler.schedule(prefix + "second", 20, 2, () -> {
+            if (gamePlayingTask != null) gamePlayingTask.runSecond(gameWorld);
+        }));
+        matchJobs.add(scheduler.schedule(prefix + "scoreboard", 10, 2, () -> {
+            if (scoreboardManager != null) scoreboardManager.update();
+        }));
+    }
+
+    private void cancelMatchJobs() {
+        TickScheduler scheduler = ArenaManager.getInstance().getScheduler();
+        matchJobs.forEach(scheduler::cancel);
+        matchJobs.clear();
+    }
+
     private void lookAtNearestPlayer(net.minecraft.entity.Entity entity) {
         net.minecraft.entity.player.PlayerEntity nearest = entity.getWorld().getClosestPlayer(entity, 10);
         if (nearest != null) {
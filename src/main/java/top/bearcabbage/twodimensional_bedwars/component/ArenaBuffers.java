@@ -0,0 +1,296 @@
+package top.bearcabbage.twodimensional_bedwars.component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.World;
+import top.bearcabbage.twodimensional_bedwars.TwoDimensionalBedWars;
+import top.bearcabbage.twodimensional_bedwars.api.IArena;
+import top.bearcabbage.twodimensional_bedwars.config.GameConfig;
+import top.bearcabbage.twodimensional_bedwars.game.ArenaManager;
+import top.bearcabbage.twodimensional_bedwars.mechanic.InternalAdapter;
+import top.bearcabbage.twodimensional_bedwars.world.ArenaWorlds;
+import top.bearcabbage.twodimensional_bedwars.world.ChunkLeases;
+import top.bearcabbage.twodimensional_bedwars.world.GameEntities;
+
+/**
+ * A pool of arena dimensions that matches take turns in.
+ *
+ * The pool holds the declared dimensions listed in
+ * {@code arenaRestoreConfig.arenaDimensions}. Up to {@code poolSize}, the rest
+ * are {@link ArenaWorlds runtime worlds} named {@code arena_<n>}, modelled on
+ * the first of them, so a bigger pool needs no data-pack change or restart.
+ *
+ * A dimension handed back after a match is left DIRTY and restored in the
+ * background on a later tick with headroom, one at a time, so by the time the
+ * next match starts it is normally already READY and the countdown does not
+ * have to wait for a restore. A match that finds nothing READY restores its
+ * dimension straight away.
+ */
+public class ArenaBuffers {
+    private enum State {
+        DIRTY, RESTORING, READY, IN_USE
+    }
+
+    private static class Buffer {
+        // Replaced when a file reset creates the world again
+        ServerWorld world;
+        State state = State.DIRTY;
+        // Taken by a match that is waiting for the restore to finish
+        boolean claimed;
+        // Swap in the pristine files as soon as the dimension is idle
+        boolean resetPending;
+        // Runs once the restore currently in progress completes
+        final List<Runnable> onReady = new ArrayList<>();
+
+        Buffer(ServerWorld world) {
+            this.world = world;
+        }
+    }
+
+    private final List<Buffer> buffers = new ArrayList<>();
+
+    /** Fills the pool, creating its runtime worlds; they are restored on the following ticks. */
+    public void load(MinecraftServer server) {
+        buffers.clear();
+        GameConfig.RestoreConfig restoreConfig = GameConfig.getInstance().arenaRestoreConfig;
+
+        for (String id : restoreConfig.arenaDimensions) {
+            if (buffers.size() >= restoreConfig.poolSize) break;
+            ServerWorld world = server.getWorld(RegistryKey.of(RegistryKeys.WORLD, Identifier.of(id)));
+            if (world == null) {
+                System.out.println("Arena dimension " + id + " not found, skipping.");
+                continue;
+            }
+            add(world);
+        }
+
+        if (buffers.isEmpty()) {
+            System.out.println("No declared arena dimension found, the arena pool stays empty.");
+            return;
+        }
+        ServerWorld model = buffers.get(0).world;
+        for (int n = buffers.size() + 1; buffers.size() < restoreConfig.poolSize; n++) {
+            RegistryKey<World> key = RegistryKey.of(RegistryKeys.WORLD,
+                    Identifier.of(TwoDimensionalBedWars.MOD_ID, "arena_" + n));
+            ServerWorld world = server.getWorld(key);
+            if (world == null) {
+                world = ArenaWorlds.create(server, key, model);
+            } else if (isArenaWorld(world)) {
+                continue;
+            }
+            add(world);
+        }
+        System.out.println("Arena buffers: " + buffers.size() + " dimensions.");
+    }
+
+    private void add(ServerWorld world) {
+        buffers.add(new Buffer(world));
+        // Arena dimensions only hold the arena, so everything in them belongs to the game
+        GameEntities.open(world, true);
+    }
+
+    /**
+     * Pre-warms the pool. On a tick where no restore is running and the server
+     * is below the restore MSPT target, starts restoring one DIRTY dimension.
+     * File resets of idle dimensions are carried out here too, at the end of
+     * the tick, where worlds can be unloaded.
+     */
+    public void tick(MinecraftServer server) {
+        for (Buffer buffer : buffers) {
+            if (buffer.resetPending && !buffer.claimed
+                    && (buffer.state == State.DIRTY || buffer.state == State.READY)) {
+                // Arenas let go of the finished match's world, with the spectators still in it
+                for (IArena arena : ArenaManager.getInstance().getArenas()) {
+                    if (arena instanceof Arena impl) {
+                        impl.releaseWorld(buffer.world);
+                    }
+                }
+                // Leases are keyed by dimension and would carry over to the new world; wait for them
+                if (ChunkLeases.getLeasedChunkCount(buffer.world) == 0) {
+                    resetFiles(server, buffer);
+                }
+            }
+        }
+
+        // Without a template nothing can be restored; dimensions stay DIRTY
+        if (!MapManager.isIdle() || MapManager.getTemplate() == null) return;
+        Buffer dirty = find(State.DIRTY);
+        if (dirty == null) return;
+
+        GameConfig.RestoreConfig restoreConfig = GameConfig.getInstance().arenaRestoreConfig;
+        long target = Math.min((long) (restoreConfig.targetMspt * 1_000_000L),
+                server.getTickManager().getNanosPerTick());
+        if (server.getAverageNanosPerTick() > target) return;
+        restore(dirty);
+    }
+
+    /**
+     * Takes a dimension for a match. Prefers one that is already restored, then
+     * one that is being restored, then any idle one. {@code onReady} runs with the
+     * world once it matches the template, immediately if it already does.
+     * Without a template it runs immediately with the dimension as it is.
+     * Returns null if every dimension is in use.
+     */
+    public ServerWorld acquire(Consumer<ServerWorld> onReady) {
+        Buffer chosen = find(State.READY);
+        if (chosen == null) chosen = find(State.RESTORING);
+        if (chosen == null) chosen = find(State.DIRTY);
+        if (chosen == null) return null;
+
+        Buffer buffer = chosen;
+        if (buffer.state != State.READY && MapManager.getTemplate() == null) {
+            System.out.println("Blueprint not found, arena dimension " + buffer.world.getRegistryKey().getValue()
+                    + " is used without a restore.");
+        }
+        if (buffer.state == State.READY || MapManager.getTemplate() == null) {
+            buffer.state = State.IN_USE;
+            onReady.accept(buffer.world);
+        } else {
+            if (buffer.state == State.DIRTY) restore(buffer);
+            buffer.claimed = true;
+            buffer.onReady.add(() -> {
+                buffer.claimed = false;
+                buffer.state = State.IN_USE;
+                onReady.accept(buffer.world);
+            });
+        }
+        return buffer.world;
+    }
+
+    /** Hands a dimension back after its match; it is restored once the server is idle. */
+    public void release(ServerWorld world) {
+        for (Buffer buffer : buffers) {
+            if (buffer.world == world && buffer.state == State.IN_USE) {
+                buffer.state = State.DIRTY;
+            } else if (buffer.world == world && buffer.claimed) {
+                // Match called off before its restore finished
+                buffer.claimed = false;
+                buffer.onReady.clear();
+            }
+        }
+    }
+
+    /** Dimensions that currently match the template and are not in a match. */
+    public List<ServerWorld> getReadyWorlds() {
+        List<ServerWorld> worlds = new ArrayList<>();
+        for (Buffer buffer : buffers) {
+            if (buffer.state == State.READY) worlds.add(buffer.world);
+        }
+        return worlds;
+    }
+
+    /**
+     * Marks every dimension of the pool that has a pristine copy for a file
+     * reset. Idle ones are reset at the end of the tick, the others once their
+     * match or restore is over. Returns how many were marked.
+     */
+    public int scheduleFileReset(MinecraftServer server) {
+        int marked = 0;
+        for (Buffer buffer : buffers) {
+            if (InternalAdapter.hasSnapshot(server, buffer.world.getRegistryKey().getValue())) {
+                buffer.resetPending = true;
+                marked++;
+            }
+        }
+        return marked;
+    }
+
+    public int size() {
+        return buffers.size();
+    }
+
+    /** Whether {@link #acquire} would hand out a dimension. */
+    public boolean hasFree() {
+        for (Buffer buffer : buffers) {
+            if (buffer.state != State.IN_USE && !buffer.claimed) return true;
+        }
+        return false;
+    }
+
+    public boolean isArenaWorld(World world) {
+        for (Buffer buffer : buffers) {
+            if (buffer.world == world) return true;
+        }
+        return false;
+    }
+
+    // Unloads the world, swaps its files for the pristine copy and creates it again
+    private void resetFiles(MinecraftServer server, Buffer buffer) {
+        buffer.resetPending = false;
+        ServerWorld old = buffer.world;
+        RegistryKey<World> key = old.getRegistryKey();
+        Path staging;
+        try {
+            staging = InternalAdapter.stagePristineFiles(server, key.getValue());
+        } catch (IOException e) {
+            TwoDimensionalBedWars.LOGGER.error("Failed to copy the pristine files of {}, keeping its own files",
+                    key.getValue(), e);
+            return;
+        }
+
+        boolean swapped = false;
+        GameEntities.close(old);
+        MapManager.forgetWorld(key);
+        try {
+            ArenaWorlds.unload(server, old);
+            InternalAdapter.swapInStaged(server, key.getValue(), staging);
+            swapped = true;
+        } catch (IOException e) {
+            TwoDimensionalBedWars.LOGGER.error("Failed to reset {} from its pristine files, keeping its own files",
+                    key.getValue(), e);
+            try {
+                InternalAdapter.discardStaged(staging);
+            } catch (IOException ignored) {
+                // Replaced by the next reset of this dimension
+            }
+        }
+
+        buffer.world = ArenaWorlds.create(server, key, old);
+        GameEntities.open(buffer.world, true);
+        // The pristine copy was taken while the dimension matched the template
+        buffer.state = swapped ? State.READY : State.DIRTY;
+        if (swapped) {
+            TwoDimensionalBedWars.LOGGER.info("Arena dimension {} reset from its pristine files.", key.getValue());
+        }
+    }
+
+    private void restore(Buffer buffer) {
+        ArenaTemplate template = MapManager.getTemplate();
+        if (template == null) {
+            System.out.println("Blueprint not found, arena buffer " + buffer.world.getRegistryKey().getValue()
+                    + " stays dirty.");
+            return;
+        }
+
+        buffer.state = State.RESTORING;
+        Runnable done = () -> {
+            System.out.println("Arena buffer " + buffer.world.getRegistryKey().getValue() + " ready.");
+            buffer.state = State.READY;
+            List<Runnable> waiting = new ArrayList<>(buffer.onReady);
+            buffer.onReady.clear();
+            waiting.forEach(Runnable::run);
+        };
+
+        GameConfig.RestoreConfig restoreConfig = GameConfig.getInstance().arenaRestoreConfig;
+        List<MapManager.RegionPair> regions = new ArrayList<>();
+        regions.add(new MapManager.RegionPair(restoreConfig.arena1Template, restoreConfig.arena1Bounds));
+        regions.add(new MapManager.RegionPair(restoreConfig.arena2Template, restoreConfig.arena2Bounds));
+        MapManager.startRestore(template, buffer.world, regions, done);
+    }
+
+    private Buffer find(State state) {
+        for (Buffer buffer : buffers) {
+            if (buffer.state == state && !buffer.claimed) return buffer;
+        }
+        return null;
+    }
+}
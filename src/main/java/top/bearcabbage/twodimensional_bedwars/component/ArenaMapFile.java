@@ -0,0 +1,250 @@
+package top.bearcabbage.twodimensional_bedwars.component;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtHelper;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.math.MathHelper;
+
+/**
+ * The .bwmap arena file: an {@link ArenaTemplate} laid out so it can be
+ * memory-mapped and used as is.
+ *
+ * <pre>
+ * int    magic "BWMP", int version
+ * int    header length, header NBT (palette and its raw state ids, regions with
+ *        their section hashes, block entities, metadata)
+ *        padding to 8 bytes
+ * long[] section table, one entry per section of every region in grid order:
+ *        &gt;= 0 file offset of the packed data, &lt; 0 uniform section of palette id -(entry + 1)
+ * long[] packed section data, fixed length per section
+ * </pre>
+ *
+ * Reading maps the whole file read-only; section data stays in the page cache
+ * and is only faulted in when a restore touches it.
+ */
+public class ArenaMapFile {
+    private static final int MAGIC = 0x42574D50; // "BWMP"
+    private static final int VERSION = 2;
+
+    public static void write(ArenaTemplate template, long sourceStamp, Path path) throws IOException {
+        int bits = template.getBitsPerEntry();
+        int longsPerSection = MathHelper.ceilDiv(4096, 64 / bits);
+
+        NbtCompound header = new NbtCompound();
+        header.putInt("DataVersion", SharedConstants.WORLD_VERSION);
+        header.putLong("SourceStamp", sourceStamp);
+        header.putInt("BitsPerEntry", bits);
+
+        NbtList palette = new NbtList();
+        int[] rawIds = new int[template.getPaletteSize()];
+        for (BlockState state : template.getPalette()) {
+            rawIds[palette.size()] = Block.getRawIdFromState(state);
+            palette.add(NbtHelper.fromBlockState(state));
+        }
+        header.put("Palette", palette);
+        // Section hashes are over raw ids, which can shift when the set of blocks changes
+        header.putIntArray("PaletteRawIds", rawIds);
+
+        NbtList regions = new NbtList();
+        for (ArenaTemplate.CompiledRegion region : template.regions) {
+            NbtCompound tag = new NbtCompound();
+            tag.putIntArray("Min", new int[] { region.minX, region.minY, region.minZ });
+            tag.putIntArray("Max", new int[] { region.maxX, region.maxY, region.maxZ });
+            tag.putIntArray("GridMin", new int[] { region.minSx, region.minSy, region.minSz });
+            tag.putIntArray("GridSize", new int[] { region.sizeX, region.sizeY, region.sizeZ });
+            long[] hashes = new long[region.sections.length];
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = region.sections[i].hash;
+            }
+            tag.putLongArray("SectionHashes", hashes);
+            regions.add(tag);
+        }
+        header.put("Regions", regions);
+
+        NbtList blockEntities = new NbtList();
+        for (Long2ObjectMap.Entry<NbtCompound> entry : template.blockEntities.long2ObjectEntrySet()) {
+            NbtCompound tag = new NbtCompound();
+            tag.putLong("Pos", entry.getLongKey());
+            tag.put("Data", entry.getValue());
+            blockEntities.add(tag);
+        }
+        header.put("BlockEntities", blockEntities);
+
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        NbtIo.write(header, new DataOutputStream(headerBytes));
+
+        int sectionCount = 0;
+        for (ArenaTemplate.CompiledRegion region : template.regions) {
+            sectionCount += region.sections.length;
+        }
+
+        long tableStart = align8(12L + headerBytes.size());
+        long dataOffset = tableStart + sectionCount * 8L;
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.createDirectories(path.getParent());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(headerBytes.size());
+            headerBytes.writeTo(out);
+            for (long i = 12L + headerBytes.size(); i < tableStart; i++) {
+                out.writeByte(0);
+            }
+
+            // Section table
+            for (ArenaTemplate.CompiledRegion region : template.regions) {
+                for (ArenaTemplate.Section section : region.sections) {
+                    if (section.data == null) {
+                        out.writeLong(-(section.singleValue + 1L));
+                    } else {
+                        out.writeLong(dataOffset);
+                        dataOffset += longsPerSection * 8L;
+                    }
+                }
+            }
+
+            // Section data
+            for (ArenaTemplate.CompiledRegion region : template.regions) {
+                for (ArenaTemplate.Section section : region.sections) {
+                    if (section.data == null) continue;
+                    for (int i = 0; i < longsPerSection; i++) {
+                        out.writeLong(section.data.get(i));
+                    }
+                }
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Cheap fingerprint of a map_template directory: names, sizes and
+     * modification times of its region files. Nothing is read or copied.
+     */
+    public static long sourceStamp(Path mapTemplate) throws IOException {
+        long stamp = VERSION;
+        try (Stream<Path> stream = Files.walk(mapTemplate)) {
+            for (Path file : (Iterable<Path>) stream.sorted()::iterator) {
+                String relative = mapTemplate.relativize(file).toString();
+                if (!relative.startsWith("region") || Files.isDirectory(file)) continue;
+                stamp = stamp * 31 + relative.hashCode();
+                stamp = stamp * 31 + Files.size(file);
+                stamp = stamp * 31 + Files.getLastModifiedTime(file).toMillis();
+            }
+        }
+        return stamp;
+    }
+
+    /** Stamp of the map the file was built from; only the header is read. */
+    public static long readSourceStamp(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer prefix = readBytes(channel, 12);
+            int headerLength = prefix.getInt(8);
+            if (headerLength < 0 || 12L + headerLength > channel.size())
+                throw new IOException("Truncated .bwmap header");
+            return readHeader(readBytes(channel, 12 + headerLength)).getLong("SourceStamp").orElse(0L);
+        }
+    }
+
+    public static ArenaTemplate read(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        NbtCompound header = readHeader(buffer);
+        int bits = header.getInt("BitsPerEntry").orElseThrow(() -> new IOException("Missing BitsPerEntry"));
+        int longsPerSection = MathHelper.ceilDiv(4096, 64 / bits);
+
+        NbtList paletteTag = header.getListOrEmpty("Palette");
+        BlockState[] palette = new BlockState[paletteTag.size()];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = NbtHelper.toBlockState(Registries.BLOCK, paletteTag.getCompoundOrEmpty(i));
+        }
+        int[] rawIds = header.getIntArray("PaletteRawIds").orElseThrow(() -> new IOException("Missing PaletteRawIds"));
+        for (int i = 0; i < palette.length; i++) {
+            if (i >= rawIds.length || rawIds[i] != Block.getRawIdFromState(palette[i]))
+                throw new IOException("Block state ids changed since the file was written");
+        }
+
+        long tablePos = align8(12L + buffer.getInt(8));
+        List<ArenaTemplate.CompiledRegion> regions = new ArrayList<>();
+        for (NbtElement element : header.getListOrEmpty("Regions")) {
+            NbtCompound tag = (NbtCompound) element;
+            int[] min = tag.getIntArray("Min").orElseThrow();
+            int[] max = tag.getIntArray("Max").orElseThrow();
+            int[] gridMin = tag.getIntArray("GridMin").orElseThrow();
+            int[] gridSize = tag.getIntArray("GridSize").orElseThrow();
+            long[] hashes = tag.getLongArray("SectionHashes").orElseThrow();
+
+            ArenaTemplate.Section[] sections = new ArenaTemplate.Section[gridSize[0] * gridSize[1] * gridSize[2]];
+            for (int i = 0; i < sections.length; i++, tablePos += 8) {
+                long entry = buffer.getLong((int) tablePos);
+                if (entry < 0) {
+                    int id = (int) (-entry - 1);
+                    sections[i] = id == 0 ? ArenaTemplate.Section.AIR : new ArenaTemplate.Section(null, id, hashes[i]);
+                } else {
+                    sections[i] = new ArenaTemplate.Section(
+                            buffer.slice((int) entry, longsPerSection * 8).asLongBuffer(), 0, hashes[i]);
+                }
+            }
+            regions.add(new ArenaTemplate.CompiledRegion(min[0], min[1], min[2], max[0], max[1], max[2],
+                    gridMin[0], gridMin[1], gridMin[2], gridSize[0], gridSize[1], gridSize[2], sections));
+        }
+
+        Long2ObjectMap<NbtCompound> blockEntities = new Long2ObjectOpenHashMap<>();
+        for (NbtElement element : header.getListOrEmpty("BlockEntities")) {
+            NbtCompound tag = (NbtCompound) element;
+            blockEntities.put(tag.getLong("Pos").orElseThrow(), tag.getCompoundOrEmpty("Data"));
+        }
+
+        return new ArenaTemplate(palette, bits, regions, blockEntities);
+    }
+
+    private static NbtCompound readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt(0) != MAGIC) throw new IOException("Not a .bwmap file");
+        if (buffer.getInt(4) != VERSION) throw new IOException("Unsupported .bwmap version " + buffer.getInt(4));
+
+        byte[] headerBytes = new byte[buffer.getInt(8)];
+        buffer.get(12, headerBytes);
+        return NbtIo.readCompound(new DataInputStream(new ByteArrayInputStream(headerBytes)));
+    }
+
+    private static ByteBuffer readBytes(FileChannel channel, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) throw new IOException("Truncated .bwmap file");
+        }
+        return buffer;
+    }
+
+    private static long align8(long pos) {
+        return (pos + 7) & ~7L;
+    }
+}
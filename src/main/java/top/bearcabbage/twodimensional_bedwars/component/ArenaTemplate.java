@@ -0,0 +1,354 @@
+package top.bearcabbage.twodimensional_bedwars.component;
+
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+import net.minecraft.world.chunk.WorldChunk;
+import top.bearcabbage.twodimensional_bedwars.config.GameConfig;
+
+/**
+ * Immutable in-memory copy of the blueprint regions, read by the restore
+ * engine instead of the live blueprint world.
+ *
+ * Every block state found in the regions goes into one shared palette. The
+ * regions are cut along the blueprint's 16x16x16 section grid and each section
+ * stores its palette indices packed into a long[] (fixed width, no entry spans
+ * two longs, same layout as vanilla). Sections made of a single state keep only
+ * that state. Every section also carries a hash of its 4096 states, computed
+ * once when compiling and stored in the .bwmap, so a live section can be
+ * checked against it without reading the template data. Positions are in
+ * blueprint coordinates. Block entities inside the regions are kept as NBT.
+ *
+ * Section data is read through {@link LongBuffer}s, so a template can be backed
+ * either by heap arrays (freshly compiled) or by a memory-mapped
+ * {@link ArenaMapFile}.
+ */
+public class ArenaTemplate {
+    private final BlockState[] palette;
+    private final int bitsPerEntry;
+    final List<CompiledRegion> regions;
+    final Long2ObjectMap<NbtCompound> blockEntities;
+    private final long dataBytes;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    ArenaTemplate(BlockState[] palette, int bitsPerEntry, List<CompiledRegion> regions,
+            Long2ObjectMap<NbtCompound> blockEntities) {
+        this.palette = palette;
+        this.bitsPerEntry = bitsPerEntry;
+        this.regions = regions;
+        this.blockEntities = blockEntities;
+
+        long bytes = 0;
+        for (CompiledRegion region : regions) {
+            for (Section section : region.sections) {
+                bytes += section.data == null ? 0 : section.data.capacity() * 8L;
+            }
+        }
+        this.dataBytes = bytes;
+    }
+
+    /**
+     * Reads the given regions of the blueprint world into a new template.
+     * Chunks are loaded synchronously, so call this while the server is starting
+     * rather than in the middle of a match.
+     */
+    public static ArenaTemplate compile(ServerWorld world, List<GameConfig.MapRegion> mapRegions) {
+        List<BlockState> palette = new ArrayList<>();
+        Reference2IntOpenHashMap<BlockState> paletteIds = new Reference2IntOpenHashMap<>();
+        paletteIds.defaultReturnValue(-1);
+        // Air is always id 0, so out-of-region cells fall back to it
+        palette.add(Blocks.AIR.getDefaultState());
+        paletteIds.put(Blocks.AIR.getDefaultState(), 0);
+
+        // First pass: gather raw ids per section, the palette size decides the packing width
+        List<int[][]> rawRegions = new ArrayList<>();
+        List<int[]> gridBounds = new ArrayList<>();
+        Long2ObjectMap<NbtCompound> blockEntities = new Long2ObjectOpenHashMap<>();
+        for (GameConfig.MapRegion mapRegion : mapRegions) {
+            GameConfig.MapPoint min = mapRegion.getMinPt();
+            GameConfig.MapPoint max = mapRegion.getMaxPt();
+            int minSx = min.x >> 4, minSy = min.y >> 4, minSz = min.z >> 4;
+            int maxSx = max.x >> 4, maxSy = max.y >> 4, maxSz = max.z >> 4;
+            int sizeX = maxSx - minSx + 1, sizeY = maxSy - minSy + 1, sizeZ = maxSz - minSz + 1;
+            int[][] raw = new int[sizeX * sizeY * sizeZ][];
+
+            for (int sx = minSx; sx <= maxSx; sx++) {
+                for (int sz = minSz; sz <= maxSz; sz++) {
+                    WorldChunk chunk = world.getChunk(sx, sz);
+                    chunk.getBlockEntities().forEach((pos, blockEntity) -> {
+                        if (pos.getX() >= min.x && pos.getX() <= max.x && pos.getY() >= min.y
+                                && pos.getY() <= max.y && pos.getZ() >= min.z && pos.getZ() <= max.z) {
+                            blockEntities.put(pos.asLong(),
+                                    blockEntity.createNbtWithIdentifyingData(world.getRegistryManager()));
+                        }
+                    });
+                    for (int sy = minSy; sy <= maxSy; sy++) {
+                        if (sy < world.getBottomSectionCoord()
+                                || sy >= world.getBottomSectionCoord() + world.countVerticalSections()) {
+                            continue;
+                        }
+                        ChunkSection section = chunk.getSection(world.sectionCoordToIndex(sy));
+                        if (section.isEmpty()) continue; // stays null = all air
+
+                        int[] ids = new int[4096];
+                        for (int i = 0; i < 4096; i++) {
+                            BlockState state = section.getBlockState(i & 15, i >> 8, (i >> 4) & 15);
+                            int id = paletteIds.getInt(state);
+                            if (id < 0) {
+                                id = palette.size();
+                                palette.add(state);
+                                paletteIds.put(state, id);
+                            }
+                            ids[i] = id;
+                        }
+                        raw[((sy - minSy) * sizeZ + (sz - minSz)) * sizeX + (sx - minSx)] = ids;
+                    }
+                }
+            }
+            rawRegions.add(raw);
+            gridBounds.add(new int[] { minSx, minSy, minSz, sizeX, sizeY, sizeZ });
+        }
+
+        // Second pass: pack and hash
+        int bits = Math.max(1, MathHelper.ceilLog2(palette.size()));
+        int[] rawIds = new int[palette.size()];
+        for (int i = 0; i < rawIds.length; i++) {
+            rawIds[i] = Block.getRawIdFromState(palette.get(i));
+        }
+        List<CompiledRegion> compiled = new ArrayList<>();
+        for (int r = 0; r < mapRegions.size(); r++) {
+            int[][] raw = rawRegions.get(r);
+            int[] b = gridBounds.get(r);
+            Section[] sections = new Section[raw.length];
+            for (int i = 0; i < raw.length; i++) {
+                sections[i] = Section.pack(raw[i], bits, rawIds);
+            }
+            GameConfig.MapPoint min = mapRegions.get(r).getMinPt();
+            GameConfig.MapPoint max = mapRegions.get(r).getMaxPt();
+            compiled.add(new CompiledRegion(min.x, min.y, min.z, max.x, max.y, max.z, b[0], b[1], b[2], b[3], b[4],
+                    b[5], sections));
+        }
+
+        return new ArenaTemplate(palette.toArray(new BlockState[0]), bits, compiled, blockEntities);
+    }
+
+    /** Block state at a blueprint position; air for anything outside the compiled regions. */
+    public BlockState getBlockState(int x, int y, int z) {
+        for (CompiledRegion region : regions) {
+            if (region.contains(x, y, z)) {
+                return getBlockState(region.sectionAt(x >> 4, y >> 4, z >> 4), x, y, z);
+            }
+        }
+        return palette[0];
+    }
+
+    /**
+     * The compiled section at blueprint section coordinates, or null if no
+     * region covers it. Lets callers that walk a whole section skip the region
+     * lookup for every block.
+     */
+    public Section getSection(int sx, int sy, int sz) {
+        for (CompiledRegion region : regions) {
+            Section section = region.sectionAt(sx, sy, sz);
+            if (section != null) return section;
+        }
+        return null;
+    }
+
+    /** State of a block inside the given section; any coordinates with the right low 4 bits work. */
+    public BlockState getBlockState(Section section, int x, int y, int z) {
+        if (section == null) return palette[0];
+        return palette[section.get(((y & 15) << 8) | ((z & 15) << 4) | (x & 15), bitsPerEntry)];
+    }
+
+    /**
+     * A block-state container holding the section's states, built from the
+     * packed data on first use and kept on the section. Shared: copy it before
+     * putting it into a chunk. Safe to call from worker threads.
+     */
+    public PalettedContainer<BlockState> getContainer(Section section) {
+        PalettedContainer<BlockState> container = section.container;
+        if (container == null) {
+            container = new PalettedContainer<>(Block.STATE_IDS, palette[0],
+                    PalettedContainer.PaletteProvider.BLOCK_STATE);
+            for (int i = 0; i < 4096; i++) {
+                int id = section.get(i, bitsPerEntry);
+                if (id != 0) {
+                    container.set(i & 15, i >> 8, (i >> 4) & 15, palette[id]);
+                }
+            }
+            section.container = container;
+        }
+        return container;
+    }
+
+    /** Saved block entity at a blueprint position, or null. */
+    public NbtCompound getBlockEntityNbt(int x, int y, int z) {
+        return blockEntities.get(BlockPos.asLong(x, y, z));
+    }
+
+    /** True if this template was compiled from exactly these blueprint regions. */
+    public boolean isCompiledFrom(List<GameConfig.MapRegion> mapRegions) {
+        if (mapRegions.size() != regions.size()) return false;
+        for (int i = 0; i < regions.size(); i++) {
+            CompiledRegion region = regions.get(i);
+            GameConfig.MapPoint min = mapRegions.get(i).getMinPt();
+            GameConfig.MapPoint max = mapRegions.get(i).getMaxPt();
+            if (region.minX != min.x || region.minY != min.y || region.minZ != min.z
+                    || region.maxX != max.x || region.maxY != max.y || region.maxZ != max.z) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hash of a live section's block states, visited y, then z, then x. Equal
+     * to {@link Section#getHash} when the container holds the same states.
+     */
+    public static long hashContainer(PalettedContainer<BlockState> container) {
+        long hash = FNV_OFFSET;
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    hash = fold(hash, Block.getRawIdFromState(container.get(x, y, z)));
+                }
+            }
+        }
+        return hash;
+    }
+
+    // FNV-1a over raw state ids
+    private static long fold(long hash, int rawId) {
+        return (hash ^ rawId) * FNV_PRIME;
+    }
+
+    private static long uniformHash(int rawId) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < 4096; i++) {
+            hash = fold(hash, rawId);
+        }
+        return hash;
+    }
+
+    BlockState[] getPalette() {
+        return palette;
+    }
+
+    int getBitsPerEntry() {
+        return bitsPerEntry;
+    }
+
+    public int getPaletteSize() {
+        return palette.length;
+    }
+
+    /** Size of the packed section data, whether on the heap or mapped. */
+    public long getDataBytes() {
+        return dataBytes;
+    }
+
+    /** One 16x16x16 cell of the template, indexed as {@code y << 8 | z << 4 | x}. */
+    public static class Section {
+        static final Section AIR = uniform(0, Block.getRawIdFromState(Blocks.AIR.getDefaultState()));
+
+        final LongBuffer data;
+        final int singleValue;
+        final long hash;
+        // Built by getContainer when a restore first swaps this section in
+        private volatile PalettedContainer<BlockState> container;
+
+        Section(LongBuffer data, int singleValue, long hash) {
+            this.data = data;
+            this.singleValue = singleValue;
+            this.hash = hash;
+        }
+
+        static Section uniform(int id, int rawId) {
+            return new Section(null, id, uniformHash(rawId));
+        }
+
+        public boolean isAir() {
+            return data == null && singleValue == 0;
+        }
+
+        /** See {@link ArenaTemplate#hashContainer}. */
+        public long getHash() {
+            return hash;
+        }
+
+        private int get(int index, int bits) {
+            if (data == null) return singleValue;
+            int perLong = 64 / bits;
+            return (int) ((data.get(index / perLong) >>> ((index % perLong) * bits)) & ((1L << bits) - 1));
+        }
+
+        private static Section pack(int[] ids, int bits, int[] rawIds) {
+            if (ids == null) return AIR;
+
+            boolean uniform = true;
+            for (int i = 1; i < ids.length && uniform; i++) {
+                uniform = ids[i] == ids[0];
+            }
+            if (uniform) return ids[0] == 0 ? AIR : uniform(ids[0], rawIds[ids[0]]);
+
+            // Index order is y, z, x, the same order hashContainer visits a live section in
+            int perLong = 64 / bits;
+            long[] data = new long[(ids.length + perLong - 1) / perLong];
+            long hash = FNV_OFFSET;
+            for (int i = 0; i < ids.length; i++) {
+                data[i / perLong] |= (long) ids[i] << ((i % perLong) * bits);
+                hash = fold(hash, rawIds[ids[i]]);
+            }
+            return new Section(LongBuffer.wrap(data), 0, hash);
+        }
+    }
+
+    static class CompiledRegion {
+        final int minX, minY, minZ, maxX, maxY, maxZ;
+        final int minSx, minSy, minSz, sizeX, sizeY, sizeZ;
+        final Section[] sections;
+
+        CompiledRegion(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, int minSx, int minSy,
+                int minSz, int sizeX, int sizeY, int sizeZ, Section[] sections) {
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+            this.minSx = minSx;
+            this.minSy = minSy;
+            this.minSz = minSz;
+            this.sizeX = sizeX;
+            this.sizeY = sizeY;
+            this.sizeZ = sizeZ;
+            this.sections = sections;
+        }
+
+        private boolean contains(int x, int y, int z) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+
+        private Section sectionAt(int sx, int sy, int sz) {
+            int lx = sx - minSx, ly = sy - minSy, lz = sz - minSz;
+            if (lx < 0 || ly < 0 || lz < 0 || lx >= sizeX || ly >= sizeY || lz >= sizeZ) return null;
+            return sections[(ly * sizeZ + lz) * sizeX + lx];
+        }
+    }
+}
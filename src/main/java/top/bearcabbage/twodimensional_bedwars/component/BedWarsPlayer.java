@@ -11,6 +11,7 @@ import net.minecraft.entity.EquipmentSlot;
 import net.minecraft.registry.RegistryKeys;
 import net.minecraft.enchantment.Enchantments;
 import top.bearcabbage.twodimensional_bedwars.api.ITeam;
+import top.bearcabbage.twodimensional_bedwars.world.GameEntities;
 
 public class BedWarsPlayer {
     private final UUID uuid;
@@ -305,7 +306,7 @@ public class BedWarsPlayer {
             if (isCurrency(stack)) {
                 ItemEntity itemEntity = new ItemEntity(world, player.getX(), player.getY(), player.getZ(),
                         stack.copy());
-                world.spawnEntity(itemEntity);
+                GameEntities.spawn(world, itemEntity, GameEntities.Kind.DEATH_DROP);
             }
         }
     }
@@ -9,6 +9,7 @@ import java.util.UUID;
 import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.util.math.BlockPos;
 import top.bearcabbage.twodimensional_bedwars.api.ITeam;
+import top.bearcabbage.twodimensional_bedwars.world.GameEntities;
 
 public class BedWarsTeam implements ITeam {
     private final String name;
@@ -21,6 +22,7 @@ public class BedWarsTeam implements ITeam {
     private final List<BedWarsPlayer> players; // NEW
     private final List<BlockPos> generators;
     private final List<OreGenerator> liveGenerators; // Active tickable generators
+    private GeneratorWheel generatorWheel; // The arena's, fires liveGenerators
     private final List<net.minecraft.entity.effect.StatusEffectInstance> teamEffects;
 
     // Upgrades
@@ -32,9 +34,6 @@ public class BedWarsTeam implements ITeam {
     // Shared Inventory
     private final net.minecraft.inventory.SimpleInventory enderChest;
 
-    // Tick Counter
-    private int tickTimer = 0;
-
     public BedWarsTeam(String name, int color) {
         this.name = name;
         this.color = color;
@@ -55,21 +54,8 @@ public class BedWarsTeam implements ITeam {
         return enderChest;
     }
 
-    public void tick(net.minecraft.server.world.ServerWorld world) {
-        tickTimer++;
-
-        // Tick Generators
-        for (OreGenerator gen : liveGenerators) {
-            gen.tick(world);
-        }
-
-        // Every 10 ticks: Apply Upgrades
-        if (tickTimer % 10 == 0) {
-            applyTeamUpgrades(world);
-        }
-    }
-
-    private void applyTeamUpgrades(net.minecraft.server.world.ServerWorld world) {
+    // Every 10 ticks, scheduled by the arena
+    public void applyTeamUpgrades(net.minecraft.server.world.ServerWorld world) {
         net.minecraft.registry.Registry<net.minecraft.enchantment.Enchantment> registry = world.getRegistryManager()
                 .getOptional(net.minecraft.registry.RegistryKeys.ENCHANTMENT).orElseThrow();
         net.minecraft.registry.entry.RegistryEntry<net.minecraft.enchantment.Enchantment> sharpness = registry
@@ -174,6 +160,8 @@ public class BedWarsTeam implements ITeam {
     }
 
     private void updateGenerators() {
+        // Generators that keep their item are updated in place, keeping their drops and stockpile
+        List<OreGenerator> previous = new ArrayList<>(liveGenerators);
         liveGenerators.clear();
         top.bearcabbage.twodimensional_bedwars.config.GameConfig config = top.bearcabbage.twodimensional_bedwars.config.GameConfig
                 .getInstance();
@@ -224,10 +212,37 @@ public class BedWarsTeam implements ITeam {
 
                 net.minecraft.item.Item item = net.minecraft.registry.Registries.ITEM.get(id);
                 if (item != net.minecraft.item.Items.AIR) {
-                    liveGenerators.add(new OreGenerator(pos, item, res.amount, res.delay, res.limit));
+                    OreGenerator generator = takeGenerator(previous, pos, item);
+                    if (generator != null) {
+                        generator.updateSettings(res.amount, res.delay, res.limit);
+                        generator.setLevel(forgeLevel + 1);
+                        liveGenerators.add(generator);
+                        continue;
+                    }
+                    generator = new OreGenerator(pos, item, res.amount, res.delay, res.limit);
+                    generator.setLevel(forgeLevel + 1);
+                    liveGenerators.add(generator);
+                    if (generatorWheel != null) {
+                        generatorWheel.add(generator);
+                    }
                 }
             }
         }
+        if (generatorWheel != null) {
+            previous.forEach(generatorWheel::remove);
+        }
+    }
+
+    private static OreGenerator takeGenerator(List<OreGenerator> generators, BlockPos pos,
+            net.minecraft.item.Item item) {
+        for (java.util.Iterator<OreGenerator> it = generators.iterator(); it.hasNext();) {
+            OreGenerator generator = it.next();
+            if (generator.getLocation().equals(pos) && generator.getItemType() == item) {
+                it.remove();
+                return generator;
+            }
+        }
+        return null;
     }
 
     public void setSpawnPoint(int arenaId, BlockPos pos) {
@@ -308,6 +323,9 @@ public class BedWarsTeam implements ITeam {
 
     public void addLiveGenerator(OreGenerator generator) {
         liveGenerators.add(generator);
+        if (generatorWheel != null) {
+            generatorWheel.add(generator);
+        }
     }
 
     public List<StatusEffectInstance> getTeamEffects() {
@@ -362,9 +380,10 @@ public class BedWarsTeam implements ITeam {
             top.bearcabbage.twodimensional_bedwars.config.GameConfig.MapPoint c1,
             top.bearcabbage.twodimensional_bedwars.config.GameConfig.MapPoint c2,
             top.bearcabbage.twodimensional_bedwars.config.GameConfig.TeamConfig teamConfig,
-            String res1, String res2) {
+            String res1, String res2, GeneratorWheel generatorWheel) {
 
         BedWarsTeam team = new BedWarsTeam(name, colorValue);
+        team.generatorWheel = generatorWheel;
         top.bearcabbage.twodimensional_bedwars.config.GameConfig config = top.bearcabbage.twodimensional_bedwars.config.GameConfig
                 .getInstance();
 
@@ -388,7 +407,8 @@ public class BedWarsTeam implements ITeam {
         // Base Blocks (Bed)
         net.minecraft.block.Block bedBlock = getBedBlock(name);
         net.minecraft.util.math.Direction facing = getFacingTowardsCenter(sOff.dx, sOff.dz);
-        setupTeamBase(world, team, bedBlock, facing, spawn1, false);
+        top.bearcabbage.twodimensional_bedwars.world.LightBatch lightBatch = new top.bearcabbage.twodimensional_bedwars.world.LightBatch(world);
+        setupTeamBase(lightBatch, team, bedBlock, facing, spawn1, false);
 
         // --- Arena 2 Setup (Nether) ---
         BlockPos spawn2 = new BlockPos(c2.x + sOff.dx, c2.y + sOff.dy, c2.z + sOff.dz);
@@ -402,7 +422,9 @@ public class BedWarsTeam implements ITeam {
         spawnShopKeeper(world, shop2, "Piglin");
 
         // Base Blocks (Anchor)
-        setupTeamBase(world, team, net.minecraft.block.Blocks.RESPAWN_ANCHOR, facing, spawn2, true);
+        setupTeamBase(lightBatch, team, net.minecraft.block.Blocks.RESPAWN_ANCHOR, facing, spawn2, true);
+        // Relight both bases once (the anchor is a light source)
+        lightBatch.flush();
 
         // Initialize Generators
         team.setForgeLevel(0);
@@ -433,7 +455,7 @@ public class BedWarsTeam implements ITeam {
             // Add identifying tag
             entity.addCommandTag("BedWarsShop");
             
-            world.spawnEntity(entity);
+            GameEntities.spawn(world, entity, GameEntities.Kind.SHOPKEEPER);
         }
     }
 
@@ -457,21 +479,21 @@ public class BedWarsTeam implements ITeam {
         }
     }
 
-    private static void setupTeamBase(net.minecraft.server.world.ServerWorld world, BedWarsTeam team,
+    private static void setupTeamBase(top.bearcabbage.twodimensional_bedwars.world.LightBatch lightBatch, BedWarsTeam team,
             net.minecraft.block.Block block, net.minecraft.util.math.Direction facing, BlockPos spawnPos, boolean isAnchor) {
         if (isAnchor) {
             // Respawn Anchor (Single Block)
-            world.setBlockState(spawnPos, block.getDefaultState().with(net.minecraft.block.RespawnAnchorBlock.CHARGES, 4));
+            lightBatch.setBlockState(spawnPos, block.getDefaultState().with(net.minecraft.block.RespawnAnchorBlock.CHARGES, 4));
         } else {
             // Bed (Head + Foot)
             BlockPos footPos = spawnPos;
             BlockPos headPos = spawnPos.offset(facing);
 
-            world.setBlockState(headPos,
+            lightBatch.setBlockState(headPos,
                     block.getDefaultState()
                             .with(net.minecraft.block.BedBlock.PART, net.minecraft.block.enums.BedPart.HEAD)
                             .with(net.minecraft.block.BedBlock.FACING, facing));
-            world.setBlockState(footPos,
+            lightBatch.setBlockState(footPos,
                     block.getDefaultState()
                             .with(net.minecraft.block.BedBlock.PART, net.minecraft.block.enums.BedPart.FOOT)
                             .with(net.minecraft.block.BedBlock.FACING, facing));
@@ -0,0 +1,63 @@
+package top.bearcabbage.twodimensional_bedwars.component;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+/**
+ * Remembers every block position written in one arena world since its last
+ * restore, as packed {@link net.minecraft.util.math.BlockPos#asLong} values.
+ * Duplicate writes to the same position only cost one entry.
+ *
+ * Once more than {@code capacity} positions are recorded the journal gives up
+ * (drops its contents and reports overflow), and the next restore has to fall
+ * back to a full scan.
+ */
+public class ChangeJournal {
+    private final LongOpenHashSet positions = new LongOpenHashSet();
+    private final int capacity;
+
+    private boolean recording = false;
+    private boolean overflowed = false;
+
+    public ChangeJournal(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void record(long pos) {
+        if (!recording || overflowed)
+            return;
+        if (positions.add(pos) && positions.size() > capacity) {
+            overflowed = true;
+            positions.clear();
+            positions.trim();
+        }
+    }
+
+    /** Starts a fresh journal; called right after the world has been fully restored. */
+    public void start() {
+        positions.clear();
+        overflowed = false;
+        recording = true;
+    }
+
+    /** Stops recording while a restore is rewriting the world. */
+    public void suspend() {
+        recording = false;
+    }
+
+    /** True if every change since the last restore is known. */
+    public boolean isUsable() {
+        return recording && !overflowed;
+    }
+
+    public boolean hasOverflowed() {
+        return overflowed;
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    public long[] toArray() {
+        return positions.toLongArray();
+    }
+}
@@ -0,0 +1,16 @@
+package top.bearcabbage.twodimensional_bedwars.component;
+
+/**
+ * Implemented on ItemEntity by ItemEntityMixin.
+ * The generator an item entity counts towards, and how many of its items the
+ * generator currently counts.
+ */
+public interface GeneratorDrop {
+    OreGenerator bedwars$getGenerator();
+
+    void bedwars$setGenerator(OreGenerator generator);
+
+    int bedwars$getCounted();
+
+    void bedwars$setCounted(int counted);
+}
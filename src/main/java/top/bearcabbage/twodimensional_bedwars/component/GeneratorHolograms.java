@@ -0,0 +1,192 @@
+package top.bearcabbage.twodimensional_bedwars.component;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.data.DataTracker;
+import net.minecraft.entity.decoration.DisplayEntity;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.s2c.play.EntitiesDestroyS2CPacket;
+import net.minecraft.network.packet.s2c.play.EntitySpawnS2CPacket;
+import net.minecraft.network.packet.s2c.play.EntityTrackerUpdateS2CPacket;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import net.minecraft.util.math.Vec3d;
+import top.bearcabbage.twodimensional_bedwars.mixin.DisplayEntityAccessor;
+import top.bearcabbage.twodimensional_bedwars.mixin.EntityAccessor;
+import top.bearcabbage.twodimensional_bedwars.mixin.TextDisplayEntityAccessor;
+
+/**
+ * Level and countdown text above every generator of an arena.
+ *
+ * The holograms are text displays that only exist on the clients: the server
+ * holds an entity id per generator and sends spawn, metadata and destroy
+ * packets for it, with no entity in the world. A player gets a hologram once
+ * they are within text display tracking range and loses it when they leave
+ * that range or the world. The text is resent only when what it shows
+ * changes, so the countdown costs one small packet per viewer per second.
+ */
+public class GeneratorHolograms {
+    private static final double HEIGHT = 2.0; // Above the generator block
+    private static final double LINE_SPACING = 0.6; // Between generators sharing a block
+
+    private static class Hologram {
+        final int entityId = EntityAccessor.getCurrentId().incrementAndGet();
+        final UUID uuid = UUID.randomUUID();
+        final Vec3d pos;
+        // Player objects rather than UUIDs, so one who reconnects between updates gets it again
+        final Set<ServerPlayerEntity> viewers = Collections.newSetFromMap(new IdentityHashMap<>());
+        int generation;
+
+        // What the text currently shows
+        Text text;
+        int level = -1;
+        int seconds = -1;
+        boolean full;
+
+        Hologram(Vec3d pos) {
+            this.pos = pos;
+        }
+    }
+
+    private final Map<OreGenerator, Hologram> holograms = new IdentityHashMap<>();
+    private int generation;
+
+    /**
+     * Brings the holograms in line with the arena's generators and the
+     * players in range. Called a few times a second by the arena.
+     */
+    public void update(ServerWorld world, GeneratorWheel wheel, List<OreGenerator> generators) {
+        generation++;
+        MinecraftServer server = world.getServer();
+        int chunks = Math.min(EntityType.TEXT_DISPLAY.getMaxTrackDistance(),
+                server.getPlayerManager().getViewDistance());
+        double rangeSq = (chunks * 16.0) * (chunks * 16.0);
+
+        for (OreGenerator generator : generators) {
+            Hologram hologram = holograms.get(generator);
+            if (hologram == null) {
+                hologram = new Hologram(positionFor(generator));
+                holograms.put(generator, hologram);
+            }
+            hologram.generation = generation;
+            boolean changed = refreshText(hologram, generator, wheel);
+            Packet<?> textPacket = null;
+
+            // Viewers who left the world or the range lose the hologram
+            Iterator<ServerPlayerEntity> it = hologram.viewers.iterator();
+            while (it.hasNext()) {
+                ServerPlayerEntity player = it.next();
+                if (player.isRemoved()) {
+                    // Gone, or replaced by a new player object on respawn
+                    it.remove();
+                } else if (player.getWorld() != world || player.squaredDistanceTo(hologram.pos) > rangeSq) {
+                    player.networkHandler.sendPacket(new EntitiesDestroyS2CPacket(hologram.entityId));
+                    it.remove();
+                } else if (changed) {
+                    if (textPacket == null) {
+                        textPacket = new EntityTrackerUpdateS2CPacket(hologram.entityId,
+                                List.of(DataTracker.SerializedEntry.of(TextDisplayEntityAccessor.getTextData(),
+                                        hologram.text)));
+                    }
+                    player.networkHandler.sendPacket(textPacket);
+                }
+            }
+
+            // Players coming into range get it spawned with the current text
+            for (ServerPlayerEntity player : world.getPlayers()) {
+                if (player.squaredDistanceTo(hologram.pos) <= rangeSq && hologram.viewers.add(player)) {
+                    spawn(player, hologram);
+                }
+            }
+        }
+
+        // Generators that are gone (replaced by a forge upgrade)
+        Iterator<Hologram> it = holograms.values().iterator();
+        while (it.hasNext()) {
+            Hologram hologram = it.next();
+            if (hologram.generation != generation) {
+                destroy(hologram);
+                it.remove();
+            }
+        }
+    }
+
+    /** Removes every hologram from its viewers. */
+    public void clear() {
+        for (Hologram hologram : holograms.values()) {
+            destroy(hologram);
+        }
+        holograms.clear();
+    }
+
+    // Stacked above the holograms of generators already on the same block
+    private Vec3d positionFor(OreGenerator generator) {
+        int index = 0;
+        for (OreGenerator other : holograms.keySet()) {
+            if (other.getLocation().equals(generator.getLocation()))
+                index++;
+        }
+        return Vec3d.ofBottomCenter(generator.getLocation()).add(0, HEIGHT + index * LINE_SPACING, 0);
+    }
+
+    // Rebuilds the text if the level, the displayed second or the full state changed
+    private static boolean refreshText(Hologram hologram, OreGenerator generator, GeneratorWheel wheel) {
+        int level = generator.getLevel();
+        boolean full = generator.isFull();
+        int seconds = full ? 0 : (int) Math.ceil(Math.max(0, wheel.ticksUntil(generator)) / 20.0);
+        if (hologram.text != null && level == hologram.level && seconds == hologram.seconds
+                && full == hologram.full)
+            return false;
+        hologram.level = level;
+        hologram.seconds = seconds;
+        hologram.full = full;
+
+        Text title = Text.translatable("two-dimensional-bedwars.hologram.level",
+                generator.getItemType().getName(), toRoman(level)).formatted(Formatting.AQUA);
+        Text status = full
+                ? Text.translatable("two-dimensional-bedwars.hologram.full").formatted(Formatting.RED)
+                : Text.translatable("two-dimensional-bedwars.hologram.countdown", seconds)
+                        .formatted(Formatting.YELLOW);
+        hologram.text = Text.empty().append(title).append("\n").append(status);
+        return true;
+    }
+
+    private static void spawn(ServerPlayerEntity player, Hologram hologram) {
+        player.networkHandler.sendPacket(new EntitySpawnS2CPacket(hologram.entityId, hologram.uuid,
+                hologram.pos.x, hologram.pos.y, hologram.pos.z, 0, 0, EntityType.TEXT_DISPLAY, 0, Vec3d.ZERO, 0));
+        player.networkHandler.sendPacket(new EntityTrackerUpdateS2CPacket(hologram.entityId, List.of(
+                DataTracker.SerializedEntry.of(DisplayEntityAccessor.getBillboardData(),
+                        (byte) DisplayEntity.BillboardMode.CENTER.getIndex()),
+                DataTracker.SerializedEntry.of(TextDisplayEntityAccessor.getTextData(), hologram.text))));
+    }
+
+    private static void destroy(Hologram hologram) {
+        for (ServerPlayerEntity player : hologram.viewers) {
+            if (!player.isDisconnected()) {
+                player.networkHandler.sendPacket(new EntitiesDestroyS2CPacket(hologram.entityId));
+            }
+        }
+        hologram.viewers.clear();
+    }
+
+    private static String toRoman(int level) {
+        return switch (level) {
+            case 1 -> "I";
+            case 2 -> "II";
+            case 3 -> "III";
+            case 4 -> "IV";
+            case 5 -> "V";
+            default -> String.valueOf(level);
+        };
+    }
+}
@@ -0,0 +1,127 @@
+package top.bearcabbage.twodimensional_bedwars.component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Fires every generator of an arena, team and public alike, exactly once per
+ * period.
+ *
+ * A hashed timer wheel: each generator sits in the slot of the tick it fires
+ * next ({@code fireTick % SLOTS}). A tick only visits its own slot, so
+ * generators cost nothing between spawns. Generators whose period is longer
+ * than the wheel stay in their slot for the extra turns.
+ *
+ * Rescheduling leaves the old entry behind, cancelled; it is dropped when its
+ * slot comes round.
+ */
+public class GeneratorWheel {
+    private static final int SLOTS = 1024;
+    private static final int MASK = SLOTS - 1;
+
+    static class Entry {
+        final OreGenerator generator;
+        long fireTick;
+        boolean cancelled;
+
+        Entry(OreGenerator generator, long fireTick) {
+            this.generator = generator;
+            this.fireTick = fireTick;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private final List<Entry>[] slots = new List[SLOTS];
+    private long tick;
+    private int size;
+
+    public GeneratorWheel() {
+        for (int i = 0; i < SLOTS; i++) {
+            slots[i] = new ArrayList<>();
+        }
+    }
+
+    /** Schedules a generator to fire one period from now. */
+    public void add(OreGenerator generator) {
+        remove(generator);
+        schedule(new Entry(generator, tick + generator.getPeriodTicks()));
+        size++;
+    }
+
+    public void remove(OreGenerator generator) {
+        if (generator.wheelEntry != null) {
+            generator.wheelEntry.cancelled = true;
+            generator.wheelEntry = null;
+            generator.wheel = null;
+            size--;
+        }
+    }
+
+    /**
+     * Applies a changed period. A shorter period pulls the next spawn in to at
+     * most one new period from now; a longer one takes effect after the next
+     * spawn.
+     */
+    public void reschedule(OreGenerator generator) {
+        Entry entry = generator.wheelEntry;
+        if (entry == null)
+            return;
+        long fireTick = Math.min(entry.fireTick, tick + generator.getPeriodTicks());
+        if (fireTick == entry.fireTick)
+            return;
+        entry.cancelled = true;
+        schedule(new Entry(generator, fireTick));
+    }
+
+    public void tick(ServerWorld world) {
+        tick++;
+        List<Entry> slot = slots[(int) (tick & MASK)];
+        if (slot.isEmpty())
+            return;
+
+        // Swap-remove what leaves the slot; fired generators go to their next slot
+        for (int i = slot.size() - 1; i >= 0; i--) {
+            Entry entry = slot.get(i);
+            if (!entry.cancelled && entry.fireTick > tick)
+                continue; // Fires on a later turn of the wheel
+            Entry last = slot.remove(slot.size() - 1);
+            if (i < slot.size())
+                slot.set(i, last);
+            if (entry.cancelled)
+                continue;
+
+            entry.generator.fire(world);
+            entry.fireTick = tick + entry.generator.getPeriodTicks();
+            slots[(int) (entry.fireTick & MASK)].add(entry);
+        }
+    }
+
+    /** Drops every generator. */
+    public void clear() {
+        for (List<Entry> slot : slots) {
+            for (Entry entry : slot) {
+                entry.generator.wheelEntry = null;
+                entry.generator.wheel = null;
+            }
+            slot.clear();
+        }
+        size = 0;
+    }
+
+    /** Ticks until a generator fires next, or -1 if it is not on the wheel. */
+    public long ticksUntil(OreGenerator generator) {
+        return generator.wheelEntry == null ? -1 : generator.wheelEntry.fireTick - tick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void schedule(Entry entry) {
+        entry.generator.wheelEntry = entry;
+        entry.generator.wheel = this;
+        slots[(int) (entry.fireTick & MASK)].add(entry);
+    }
+}
@@ -1,136 +1,568 @@
 package top.bearcabbage.twodimensional_bedwars.component;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.packet.s2c.play.ChunkDataS2CPacket;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+import net.minecraft.world.chunk.WorldChunk;
+import net.minecraft.world.poi.PointOfInterestTypes;
 import top.bearcabbage.twodimensional_bedwars.config.GameConfig;
+import top.bearcabbage.twodimensional_bedwars.game.ArenaProfiler;
+import top.bearcabbage.twodimensional_bedwars.world.ChunkLeases;
+import top.bearcabbage.twodimensional_bedwars.world.LightBatch;
 
 public class MapManager {
-    
-    private static final int BLOCKS_PER_TICK = 50000;
-    
+
+    // Kept free at the end of each tick for the work the server does after END_SERVER_TICK
+    private static final long TICK_TAIL_RESERVE_NANOS = 2_000_000L;
+
     private static final List<ActiveRestore> activeRestores = new ArrayList<>();
+    // Finished restores, newest first
+    private static final int HISTORY_SIZE = 20;
+    private static final ArrayDeque<RestoreStats> history = new ArrayDeque<>();
     private static boolean tickingRegistered = false;
+    private static long tickStartNanos;
+
+    // Per arena world: block positions changed since that world was last restored (JOURNAL mode)
+    private static final Map<RegistryKey<World>, ChangeJournal> journals = new HashMap<>();
+    // Per arena world: sections known to match the template since the last section restore
+    private static final Map<RegistryKey<World>, SectionStamps> stamps = new HashMap<>();
+
+    // Blueprint regions compiled at server start; restores read from this instead of the blueprint world
+    private static ArenaTemplate template;
+    // .bwmap cache of the template and the stamp of the map_template it must match
+    private static Path templateFile;
+    private static long templateStamp;
+    // Whether the blueprint world holds real map data this run (false when the .bwmap was mapped instead)
+    private static boolean blueprintImported = false;
+
+    /**
+     * Maps the cached .bwmap if it was built from the same map_template and the
+     * configured template regions. Returns false if the blueprint regions have
+     * to be imported and compiled instead.
+     */
+    public static boolean loadTemplateFile(Path file, long stamp) {
+        templateFile = file;
+        templateStamp = stamp;
+        if (Files.exists(file)) {
+            try {
+                if (ArenaMapFile.readSourceStamp(file) == stamp) {
+                    ArenaTemplate loaded = ArenaMapFile.read(file);
+                    if (loaded.isCompiledFrom(templateRegions())) {
+                        template = loaded;
+                        System.out.println("Mapped arena template " + file + ": " + template.getPaletteSize()
+                                + " block states, " + template.getDataBytes() / 1024 + " KiB section data.");
+                        warnMisalignedRegions();
+                        return true;
+                    }
+                }
+                System.out.println("Arena template " + file + " is out of date, rebuilding.");
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Failed to read arena template " + file + ", rebuilding: " + e);
+            }
+        }
+        return false;
+    }
+
+    public static void compileTemplate(ServerWorld blueprint) {
+        long startTime = System.nanoTime();
+        template = ArenaTemplate.compile(blueprint, templateRegions());
+        blueprintImported = true;
+        System.out.println("Compiled arena template in " + (System.nanoTime() - startTime) / 1_000_000 + "ms: "
+                + template.getPaletteSize() + " block states, " + template.getDataBytes() / 1024 + " KiB.");
+        warnMisalignedRegions();
+
+        if (templateFile != null) {
+            try {
+                ArenaMapFile.write(template, templateStamp, templateFile);
+            } catch (IOException e) {
+                System.out.println("Failed to save arena template " + templateFile + ": " + e);
+            }
+        }
+    }
+
+    /** After a config reload: recompile if the template regions changed. */
+    public static void reloadTemplate(ServerWorld blueprint) {
+        if (template != null && template.isCompiledFrom(templateRegions())) return;
 
-    public static void startRestore(ServerWorld source, ServerWorld dest, List<RegionPair> regions, Runnable onComplete) {
+        if (blueprintImported && blueprint != null) {
+            compileTemplate(blueprint);
+        } else {
+            // The blueprint regions were never imported this run, a restart rebuilds the template
+            System.out.println("Arena template regions changed, restart the server to rebuild the template.");
+            if (templateFile != null) {
+                try {
+                    Files.deleteIfExists(templateFile);
+                } catch (IOException e) {
+                    System.out.println("Failed to delete arena template " + templateFile + ": " + e);
+                }
+            }
+        }
+    }
+
+    public static ArenaTemplate getTemplate() {
+        return template;
+    }
+
+    // Sections are only skipped by hash or swapped whole when template and arena are a whole number of sections apart
+    private static void warnMisalignedRegions() {
+        GameConfig.RestoreConfig restoreConfig = GameConfig.getInstance().arenaRestoreConfig;
+        warnIfMisaligned("arena1", restoreConfig.arena1Template, restoreConfig.arena1Bounds);
+        warnIfMisaligned("arena2", restoreConfig.arena2Template, restoreConfig.arena2Bounds);
+    }
+
+    private static void warnIfMisaligned(String name, GameConfig.MapRegion source, GameConfig.MapRegion dest) {
+        GameConfig.MapPoint from = source.getMinPt();
+        GameConfig.MapPoint to = dest.getMinPt();
+        int offX = to.x - from.x, offY = to.y - from.y, offZ = to.z - from.z;
+        if ((offX & 15) != 0 || (offY & 15) != 0 || (offZ & 15) != 0) {
+            System.out.println("Warning: " + name + " is offset by (" + offX + ", " + offY + ", " + offZ
+                    + ") from its template, not a multiple of 16. Its restores copy block by block instead of"
+                    + " skipping or swapping whole sections; move " + name + "Bounds or " + name
+                    + "Template to align them.");
+        }
+    }
+
+    private static List<GameConfig.MapRegion> templateRegions() {
+        GameConfig.RestoreConfig restoreConfig = GameConfig.getInstance().arenaRestoreConfig;
+        return List.of(restoreConfig.arena1Template, restoreConfig.arena2Template);
+    }
+
+    public static void startRestore(ArenaTemplate source, ServerWorld dest, List<RegionPair> regions, Runnable onComplete) {
         if (source == null || dest == null) return;
-        
-        System.out.println("Starting Async Map Restore...");
-        ActiveRestore restore = new ActiveRestore(source, dest, regions, onComplete);
+
+        GameConfig.RestoreConfig restoreConfig = GameConfig.getInstance().arenaRestoreConfig;
+        ChangeJournal journal = null;
+        if ("JOURNAL".equalsIgnoreCase(restoreConfig.mode)) {
+            journal = journals.computeIfAbsent(dest.getRegistryKey(),
+                    key -> new ChangeJournal(restoreConfig.journalCapacity));
+        } else {
+            journals.remove(dest.getRegistryKey());
+        }
+
+        ActiveRestore restore;
+        if (journal != null && journal.isUsable()) {
+            System.out.println("Starting Async Map Restore (journal mode, " + journal.size() + " changed blocks)...");
+            restore = new JournalRestore(source, dest, regions, journal.toArray(), onComplete);
+        } else if ("BLOCK".equalsIgnoreCase(restoreConfig.mode)) {
+            System.out.println("Starting Async Map Restore (block mode)...");
+            restore = new BlockRestore(source, dest, regions, onComplete);
+        } else {
+            if (journal != null) {
+                System.out.println("Change journal " + (journal.hasOverflowed() ? "overflowed" : "not started")
+                        + ", falling back to a full scan.");
+            }
+            System.out.println("Starting Async Map Restore (section mode)...");
+            restore = new SectionRestore(source, dest, regions, onComplete);
+        }
+
+        // Writes made by the restore itself must not end up in the journal
+        if (journal != null) {
+            journal.suspend();
+            restore.journal = journal;
+        }
         activeRestores.add(restore);
-        
+
         if (!tickingRegistered) {
-            ServerTickEvents.END_SERVER_TICK.register(server -> tick());
+            ServerTickEvents.START_SERVER_TICK.register(server -> tickStartNanos = System.nanoTime());
+            ServerTickEvents.END_SERVER_TICK.register(MapManager::tick);
+            ServerChunkEvents.CHUNK_UNLOAD.register(MapManager::forgetChunk);
             tickingRegistered = true;
         }
     }
-    
-    private static void tick() {
-        Iterator<ActiveRestore> it = activeRestores.iterator();
+
+    // Called from WorldMixin for every World#setBlockState
+    public static void recordBlockChange(World world, BlockPos pos) {
+        if ((journals.isEmpty() && stamps.isEmpty()) || world.isClient)
+            return;
+        ChangeJournal journal = journals.get(world.getRegistryKey());
+        if (journal != null) {
+            journal.record(pos.asLong());
+        }
+        SectionStamps sectionStamps = stamps.get(world.getRegistryKey());
+        if (sectionStamps != null) {
+            sectionStamps.invalidate(ChunkSectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4));
+        }
+    }
+
+    // A world created again from other files keeps neither its journal nor its stamps
+    public static void forgetWorld(RegistryKey<World> world) {
+        journals.remove(world);
+        stamps.remove(world);
+    }
+
+    // A reloaded chunk has new containers, so its stamps could never match again
+    private static void forgetChunk(ServerWorld world, WorldChunk chunk) {
+        SectionStamps sectionStamps = stamps.get(world.getRegistryKey());
+        if (sectionStamps != null) {
+            sectionStamps.forgetChunk(chunk.getPos().x, chunk.getPos().z, world.getBottomSectionCoord(),
+                    world.getBottomSectionCoord() + world.countVerticalSections() - 1);
+        }
+    }
+
+    // Stamps of the world, started over when the template or the region layout changed
+    private static SectionStamps stampsFor(ServerWorld world, ArenaTemplate source, List<RegionPair> regions) {
+        long layout = 0;
+        for (RegionPair region : regions) {
+            for (GameConfig.MapPoint point : List.of(region.sourceRegion.getMinPt(), region.sourceRegion.getMaxPt(),
+                    region.destRegion.getMinPt(), region.destRegion.getMaxPt())) {
+                layout = ((layout * 31 + point.x) * 31 + point.y) * 31 + point.z;
+            }
+        }
+        SectionStamps current = stamps.get(world.getRegistryKey());
+        if (current == null || !current.isFor(source, layout)) {
+            current = new SectionStamps(source, layout);
+            stamps.put(world.getRegistryKey(), current);
+        }
+        return current;
+    }
+
+    private static void tick(MinecraftServer server) {
+        if (activeRestores.isEmpty()) return;
+        long profile = ArenaProfiler.begin();
+        tickRestores(server);
+        ArenaProfiler.end(ArenaProfiler.RESTORE, profile);
+    }
+
+    private static void tickRestores(MinecraftServer server) {
+
+        long deadline = System.nanoTime() + computeBudget(server);
+        ListIterator<ActiveRestore> it = activeRestores.listIterator();
+        int remaining = activeRestores.size();
         while (it.hasNext()) {
             ActiveRestore restore = it.next();
-            if (restore.tick()) {
+            // Share what is left of the budget between the restores still to run
+            long now = System.nanoTime();
+            long slice = Math.max(0, deadline - now) / remaining--;
+            boolean done = restore.tick(now + slice);
+            restore.stats.recordTick(System.nanoTime() - now);
+            if (done) {
+                // The verification pass takes over the restore's slot, journal and callback
+                ActiveRestore verify = restore.verifyPass();
                 restore.finish();
-                it.remove();
+                if (verify != null) {
+                    it.set(verify);
+                } else {
+                    it.remove();
+                }
             }
         }
     }
-    
+
+    /** Whether no restore or verification pass is running. */
+    public static boolean isIdle() {
+        return activeRestores.isEmpty();
+    }
+
+    /** Restores currently running, oldest first. */
+    public static List<RestoreStats> getActiveStats() {
+        List<RestoreStats> stats = new ArrayList<>();
+        for (ActiveRestore restore : activeRestores) {
+            stats.add(restore.stats);
+        }
+        return stats;
+    }
+
+    /** The running restore of a world, or null. */
+    public static RestoreStats getActiveStats(World world) {
+        for (ActiveRestore restore : activeRestores) {
+            if (restore.dest == world) return restore.stats;
+        }
+        return null;
+    }
+
+    /** The last finished restores, newest first. */
+    public static List<RestoreStats> getHistory() {
+        return new ArrayList<>(history);
+    }
+
+    /**
+     * How long restores may run this tick: whatever is left of the target MSPT
+     * after the rest of the tick so far, never less than the configured minimum
+     * slice so restores keep moving. When the server is already averaging over
+     * the target, only the minimum slice is used.
+     */
+    private static long computeBudget(MinecraftServer server) {
+        GameConfig.RestoreConfig restoreConfig = GameConfig.getInstance().arenaRestoreConfig;
+        long target = Math.min((long) (restoreConfig.targetMspt * 1_000_000L),
+                server.getTickManager().getNanosPerTick());
+        long minSlice = (long) (restoreConfig.minSliceMillis * 1_000_000L);
+
+        if (server.getAverageNanosPerTick() > target) {
+            return minSlice;
+        }
+        long used = System.nanoTime() - tickStartNanos;
+        return Math.max(minSlice, target - used - TICK_TAIL_RESERVE_NANOS);
+    }
+
     public static class RegionPair {
         public GameConfig.MapRegion sourceRegion;
         public GameConfig.MapRegion destRegion;
-        
+
         public RegionPair(GameConfig.MapRegion source, GameConfig.MapRegion dest) {
             this.sourceRegion = source;
             this.destRegion = dest;
         }
     }
-    
-    private static class ActiveRestore {
-        private final ServerWorld source;
-        private final ServerWorld dest;
-        private final List<RegionPair> regions;
-        private final Runnable onComplete;
-        
-        private int currentRegionIndex = 0;
-        private int currentX, currentY, currentZ;
-        private boolean regionStarted = false;
-        
+
+    private static final EnumSet<Heightmap.Type> HEIGHTMAPS = EnumSet.of(Heightmap.Type.MOTION_BLOCKING,
+            Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, Heightmap.Type.OCEAN_FLOOR, Heightmap.Type.WORLD_SURFACE);
+
+    private abstract static class ActiveRestore {
+        protected final ArenaTemplate source;
+        protected final ServerWorld dest;
+        protected final List<RegionPair> regions;
+        protected final RestoreStats stats;
+        private Runnable onComplete;
+        private final ChunkLeases.Lease lease;
+        // Restarted once this restore completes, so the next one can be journal based
+        private ChangeJournal journal;
+
+        protected int currentRegionIndex = 0;
+        protected boolean regionStarted = false;
+
         // Bounds for current region
-        private int minX, minY, minZ, maxX, maxY, maxZ;
+        protected int minX, minY, minZ, maxX, maxY, maxZ;
         // Source offset
-        private int offX, offY, offZ;
+        protected int offX, offY, offZ;
+
+        // Chunks written without client updates, waiting to be resent in one packet each
+        protected final Map<Long, WorldChunk> touchedChunks = new LinkedHashMap<>();
+        protected int chunksResent = 0;
 
-        public ActiveRestore(ServerWorld source, ServerWorld dest, List<RegionPair> regions, Runnable onComplete) {
+        protected ActiveRestore(String mode, ArenaTemplate source, ServerWorld dest, List<RegionPair> regions,
+                Runnable onComplete) {
             this.source = source;
             this.dest = dest;
             this.regions = regions;
             this.onComplete = onComplete;
+            this.stats = new RestoreStats(mode, dest.getRegistryKey());
+
+            // Keeps every destination chunk loaded until the restore finishes
+            List<GameConfig.MapRegion> destRegions = new ArrayList<>();
+            for (RegionPair region : regions) {
+                destRegions.add(region.destRegion);
+            }
+            this.lease = ChunkLeases.acquire(dest, ChunkLeases.Purpose.RESTORE, destRegions, 0);
+        }
+
+        // Works until the deadline (System.nanoTime); returns true if complete
+        public abstract boolean tick(long deadline);
+
+        // Section-hash check of what this restore produced, or null if none should run
+        protected ActiveRestore verifyPass() {
+            if (!GameConfig.getInstance().arenaRestoreConfig.verifyAfterRestore) return null;
+            SectionRestore verify = new SectionRestore("VERIFY", source, dest, regions, onComplete, true);
+            verify.journal = journal;
+            journal = null;
+            onComplete = null;
+            return verify;
+        }
+
+        protected void beginRegion(RegionPair region) {
+            minX = region.destRegion.getMinPt().x;
+            minY = region.destRegion.getMinPt().y;
+            minZ = region.destRegion.getMinPt().z;
+            maxX = region.destRegion.getMaxPt().x;
+            maxY = region.destRegion.getMaxPt().y;
+            maxZ = region.destRegion.getMaxPt().z;
+
+            // Blueprint offset
+            offX = region.sourceRegion.getMinPt().x - minX;
+            offY = region.sourceRegion.getMinPt().y - minY;
+            offZ = region.sourceRegion.getMinPt().z - minZ;
+
+            regionStarted = true;
+            System.out.println("Restoring Region " + currentRegionIndex + " Bounds: " + minX + "," + minY + "," + minZ + " to " + maxX + "," + maxY + "," + maxZ);
+        }
+
+        public void finish() {
+            stats.chunksResent = chunksResent;
+            stats.finish();
+            history.addFirst(stats);
+            while (history.size() > HISTORY_SIZE) {
+                history.removeLast();
+            }
+            System.out.println("Async Restore Complete in " + stats.getElapsedMillis() + "ms over " + stats.getTicks()
+                    + " ticks (avg " + String.format("%.2f", stats.getAverageTickMillis()) + "ms/tick). "
+                    + chunksResent + " chunks resent to clients.");
+            // Let the arena unload again unless a match or spectators hold it
+            lease.release();
+            if (journal != null) journal.start();
+            if (onComplete != null) onComplete.run();
+        }
+
+        // Section writes bypass WorldChunk#setBlockState, which is what normally keeps the POI storage
+        // (beds, workstations) in step with the blocks
+        protected void updatePoi(long packed, BlockState oldState, BlockState newState) {
+            if (PointOfInterestTypes.isPointOfInterest(oldState) || PointOfInterestTypes.isPointOfInterest(newState)) {
+                dest.onBlockStateChanged(BlockPos.fromLong(packed), oldState, newState);
+            }
+        }
+
+        // Brings the rest of the chunk in line with section contents written behind World#setBlockState
+        protected void finishChunk(WorldChunk chunk, LongArrayList changed) {
+            BlockPos.Mutable pos = new BlockPos.Mutable();
+
+            // Block entities: drop the ones whose block is gone, recreate the ones the new blocks need
+            // from the blueprint's saved data where there is some
+            for (int i = 0; i < changed.size(); i++) {
+                pos.set(changed.getLong(i));
+                BlockState state = chunk.getBlockState(pos);
+                if (chunk.getBlockEntity(pos, WorldChunk.CreationType.CHECK) != null) {
+                    chunk.removeBlockEntity(pos);
+                }
+                if (state.hasBlockEntity()) {
+                    BlockEntity saved = createSavedBlockEntity(pos.toImmutable(), state);
+                    if (saved != null) {
+                        chunk.setBlockEntity(saved);
+                    } else {
+                        chunk.getBlockEntity(pos.toImmutable(), WorldChunk.CreationType.IMMEDIATE);
+                    }
+                }
+            }
+
+            Heightmap.populateHeightmaps(chunk, HEIGHTMAPS);
+            // One light-engine task for the whole chunk
+            LightBatch.relightChunk(dest, chunk, changed);
+
+            chunk.markNeedsSaving();
+            // The chunk is final now, so clients get it right away instead of at the end of the restore
+            resendChunk(chunk);
+        }
+
+        private BlockEntity createSavedBlockEntity(BlockPos pos, BlockState state) {
+            RegionPair region = findRegion(pos.getX(), pos.getY(), pos.getZ());
+            if (region == null) return null;
+            GameConfig.MapPoint srcMin = region.sourceRegion.getMinPt();
+            GameConfig.MapPoint destMin = region.destRegion.getMinPt();
+            NbtCompound nbt = source.getBlockEntityNbt(pos.getX() + srcMin.x - destMin.x,
+                    pos.getY() + srcMin.y - destMin.y, pos.getZ() + srcMin.z - destMin.z);
+            return nbt == null ? null : BlockEntity.createFromNbt(pos, state, nbt, dest.getRegistryManager());
+        }
+
+        protected RegionPair findRegion(int x, int y, int z) {
+            for (RegionPair region : regions) {
+                GameConfig.MapPoint min = region.destRegion.getMinPt();
+                GameConfig.MapPoint max = region.destRegion.getMaxPt();
+                if (x >= min.x && x <= max.x && y >= min.y && y <= max.y && z >= min.z && z <= max.z) {
+                    return region;
+                }
+            }
+            return null;
+        }
+
+        protected void resendTouchedChunks() {
+            for (WorldChunk chunk : touchedChunks.values()) {
+                resendChunk(chunk);
+            }
+            touchedChunks.clear();
+        }
+
+        // One full chunk packet replaces every block update the writes would have sent
+        protected void resendChunk(WorldChunk chunk) {
+            List<ServerPlayerEntity> watchers = dest.getChunkManager().chunkLoadingManager
+                    .getPlayersWatchingChunk(chunk.getPos(), false);
+            if (watchers.isEmpty()) return;
+
+            ChunkDataS2CPacket packet = new ChunkDataS2CPacket(chunk, dest.getLightingProvider(), null, null);
+            for (ServerPlayerEntity player : watchers) {
+                player.networkHandler.sendPacket(packet);
+            }
+            chunksResent++;
+        }
+
+    }
+
+    // Legacy restore: walks the region block by block through the World API.
+    private static class BlockRestore extends ActiveRestore {
+        private int currentX, currentY, currentZ;
+        private LightBatch lightBatch;
+
+        public BlockRestore(ArenaTemplate source, ServerWorld dest, List<RegionPair> regions, Runnable onComplete) {
+            super("BLOCK", source, dest, regions, onComplete);
+            for (RegionPair region : regions) {
+                GameConfig.MapPoint min = region.destRegion.getMinPt();
+                GameConfig.MapPoint max = region.destRegion.getMaxPt();
+                stats.unitsTotal += (long) (max.x - min.x + 1) * (max.y - min.y + 1) * (max.z - min.z + 1);
+            }
         }
-        
-        // Returns true if complete
-        public boolean tick() {
+
+        @Override
+        public boolean tick(long deadline) {
             if (currentRegionIndex >= regions.size()) return true;
-            
+
             RegionPair region = regions.get(currentRegionIndex);
-            
+
             if (!regionStarted) {
-                // Initialize pointers
-                minX = region.destRegion.getMinPt().x;
-                minY = region.destRegion.getMinPt().y;
-                minZ = region.destRegion.getMinPt().z;
-                maxX = region.destRegion.getMaxPt().x;
-                maxY = region.destRegion.getMaxPt().y;
-                maxZ = region.destRegion.getMaxPt().z;
-                
-                // Blueprint offset
-                offX = region.sourceRegion.getMinPt().x - minX;
-                offY = region.sourceRegion.getMinPt().y - minY;
-                offZ = region.sourceRegion.getMinPt().z - minZ;
-                
+                beginRegion(region);
+                lightBatch = new LightBatch(dest);
                 currentX = minX;
                 currentY = minY;
                 currentZ = minZ;
-                
-                // Force Load Chunks
-                forceLoadChunks(dest, region.destRegion, true);
-                forceLoadChunks(source, region.sourceRegion, true); 
-                regionStarted = true;
-                System.out.println("Restoring Region " + currentRegionIndex + " Bounds: " + minX + "," + minY + "," + minZ + " to " + maxX + "," + maxY + "," + maxZ);
-            }
-            
+            }
+
             int blocksProcessed = 0;
-            
-            long startTime = System.currentTimeMillis();
-            
-            while (blocksProcessed < BLOCKS_PER_TICK) {
-                // Time Check: If we take too long (> 30ms), stop to allow server tick to finish
-                if (blocksProcessed % 1000 == 0 && (System.currentTimeMillis() - startTime) > 40) {
-                     break; 
+
+            while (true) {
+                // Time Check: stop at the deadline to allow server tick to finish
+                if ((blocksProcessed & 255) == 0 && System.nanoTime() > deadline) {
+                     break;
                 }
 
                 // Copy block
                 BlockPos destPos = new BlockPos(currentX, currentY, currentZ);
-                BlockPos srcPos = new BlockPos(currentX + offX, currentY + offY, currentZ + offZ);
-                
-                BlockState srcState = source.getBlockState(srcPos);
+
+                BlockState srcState = source.getBlockState(currentX + offX, currentY + offY, currentZ + offZ);
                 BlockState currentDestState = dest.getBlockState(destPos);
-                
+
                 // OPTIMIZATION: Only update if changed
                 if (srcState != currentDestState) {
-                    // Flag 18 = NO_NEIGHBOR_DROPS | SEND_TO_CLIENTS
-                    // Flag 82 = NO_NEIGHBOR_DROPS | SEND_TO_CLIENTS | SKIP_DROPS | MOVED (approx) - Safer to stick to 18 or adds skip_light
-                    // Using 18 is safe. The biggest save is the check above.
-                    dest.setBlockState(destPos, srcState, 18);
+                    // Flag 16 = FORCE_STATE only: no neighbour updates and no per-block packet;
+                    // the chunk is relit and resent as a whole when the region is done
+                    lightBatch.setBlockState(destPos, srcState, 16);
+                    stats.changed++;
+                    touchedChunks.computeIfAbsent(ChunkPos.toLong(currentX >> 4, currentZ >> 4),
+                            key -> dest.getChunk(currentX >> 4, currentZ >> 4));
                 }
-                
+
                 blocksProcessed++;
-                
+                stats.scanned++;
+                stats.unitsDone++;
+
                 // Advance pointers
                 currentX++;
                 if (currentX > maxX) {
@@ -141,9 +573,9 @@ public class MapManager {
                         currentY++;
                         if (currentY > maxY) {
                             // Region Complete
-                            // forceLoadChunks(dest, region.destRegion, false); // Unload - KEEP LOADED to prevent crashes/race conditions
-                            // forceLoadChunks(source, region.sourceRegion, false);
-                            
+                            lightBatch.flush();
+                            resendTouchedChunks();
+
                             currentRegionIndex++;
                             regionStarted = false;
                             return false; // Continue next tick
@@ -151,27 +583,456 @@ public class MapManager {
                     }
                 }
             }
-            
+
             return false;
         }
-        
-        public void finish() {
-            System.out.println("Async Restore Complete.");
-            if (onComplete != null) onComplete.run();
+    }
+
+    // Worker threads for the section diff; the server thread only snapshots and applies
+    private static final ForkJoinPool DIFF_POOL = new ForkJoinPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("BedWars-Restore-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+
+    /**
+     * Section restore: works on whole {@link ChunkSection}s, one chunk column at
+     * a time, with the diff against the template done off the server thread.
+     *
+     * Sections still holding the container stamped clean by the last restore
+     * (see {@link SectionStamps}) are skipped without reading a block. The
+     * server thread snapshots the other sections (a copy of their block-state
+     * containers) and hands the column to {@link #DIFF_POOL}. Workers compare
+     * each whole, aligned section's hash with the template section's stored
+     * hash first and only diff block by block when they differ; sections cut by
+     * the region edge are always diffed. The server thread drains the results
+     * within its tick budget. A whole, aligned section nothing wrote to since
+     * its snapshot gets a copy of the template's container swapped in; other
+     * sections are written block by block. Either way the writes go straight
+     * into the sections (no World#setBlockState, so no neighbour updates or
+     * per-block packets), points of interest are updated for the positions
+     * that changed, and each chunk is fixed up and resent once. Lighting for a chunk is queued as
+     * a single light-engine task, which still checks every changed position.
+     */
+    private static class SectionRestore extends ActiveRestore {
+        private final List<RegionPlan> plans = new ArrayList<>();
+        private final ConcurrentLinkedQueue<ColumnDiff> diffs = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingDiffs = new AtomicInteger();
+        // Columns fully handled: nothing to diff, or the worker result applied
+        private final AtomicInteger columnsDone = new AtomicInteger();
+        // Verification only: sections whose hash did not match the template; null for a normal restore
+        private final AtomicInteger sectionsMismatched;
+
+        private int planIndex = 0;
+        private int currentCx, currentCz;
+
+        private final SectionStamps sectionStamps;
+        private int sectionsCopied = 0;
+        private int sectionsStamped = 0;
+        private int sectionsSwapped = 0;
+
+        public SectionRestore(ArenaTemplate source, ServerWorld dest, List<RegionPair> regions, Runnable onComplete) {
+            this("SECTION", source, dest, regions, onComplete, false);
+        }
+
+        /**
+         * With {@code verify}, this is the check that runs after a restore. It
+         * works like a restore: stamped sections are skipped, the others are
+         * copied, and the workers compare their hashes with the template. Any
+         * section that differs is counted as a mismatch and rewritten.
+         */
+        SectionRestore(String mode, ArenaTemplate source, ServerWorld dest, List<RegionPair> regions,
+                Runnable onComplete, boolean verify) {
+            super(mode, source, dest, regions, onComplete);
+            this.sectionsMismatched = verify ? new AtomicInteger() : null;
+            this.sectionStamps = stampsFor(dest, source, regions);
+            for (RegionPair region : regions) {
+                GameConfig.MapPoint min = region.destRegion.getMinPt();
+                GameConfig.MapPoint max = region.destRegion.getMaxPt();
+                stats.unitsTotal += (long) ((max.x >> 4) - (min.x >> 4) + 1) * ((max.z >> 4) - (min.z >> 4) + 1);
+            }
+        }
+
+        @Override
+        protected ActiveRestore verifyPass() {
+            // Never verify a verification
+            return sectionsMismatched != null ? null : super.verifyPass();
+        }
+
+        @Override
+        public boolean tick(long deadline) {
+            if (!regionStarted) {
+                for (RegionPair region : regions) {
+                    beginRegion(region);
+                    plans.add(new RegionPlan(this));
+                    currentRegionIndex++;
+                }
+                if (!plans.isEmpty()) {
+                    currentCx = plans.get(0).minCx;
+                    currentCz = plans.get(0).minCz;
+                }
+            }
+
+            // Apply whatever the workers have finished first, then feed them more columns
+            ColumnDiff diff;
+            while (System.nanoTime() < deadline && (diff = diffs.poll()) != null) {
+                applyDiff(diff);
+            }
+
+            while (planIndex < plans.size() && System.nanoTime() < deadline) {
+                RegionPlan plan = plans.get(planIndex);
+                submitColumn(plan, currentCx, currentCz);
+
+                // Advance pointers
+                currentCx++;
+                if (currentCx > plan.maxCx) {
+                    currentCx = plan.minCx;
+                    currentCz++;
+                    if (currentCz > plan.maxCz) {
+                        planIndex++;
+                        if (planIndex < plans.size()) {
+                            currentCx = plans.get(planIndex).minCx;
+                            currentCz = plans.get(planIndex).minCz;
+                        }
+                    }
+                }
+            }
+
+            stats.unitsDone = columnsDone.get();
+            if (planIndex < plans.size() || pendingDiffs.get() > 0 || !diffs.isEmpty()) {
+                return false;
+            }
+
+            if (sectionsMismatched != null) {
+                System.out.println("Restore verification done: " + stats.scanned + " sections checked, "
+                        + sectionsMismatched.get() + " mismatched, " + stats.changed + " blocks rewritten.");
+            } else {
+                System.out.println("Section restore done: " + stats.scanned + " sections scanned, " + sectionsStamped
+                        + " untouched since the last restore, " + sectionsCopied + " changed (" + sectionsSwapped
+                        + " swapped whole), " + stats.changed + " blocks written.");
+            }
+            return true;
+        }
+
+        private void submitColumn(RegionPlan plan, int cx, int cz) {
+            WorldChunk chunk = dest.getChunk(cx, cz);
+            PalettedContainer<BlockState>[] snapshot = snapshotColumn(plan, chunk, cx, cz);
+            if (snapshot == null) {
+                columnsDone.incrementAndGet();
+                return;
+            }
+
+            pendingDiffs.incrementAndGet();
+            DIFF_POOL.execute(() -> {
+                try {
+                    // Queued even when clean, so the server thread can stamp the sections
+                    diffs.add(plan.diffColumn(source, snapshot, cx, cz, sectionsMismatched));
+                } finally {
+                    pendingDiffs.decrementAndGet();
+                }
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private PalettedContainer<BlockState>[] snapshotColumn(RegionPlan plan, WorldChunk chunk, int cx, int cz) {
+            PalettedContainer<BlockState>[] snapshot = new PalettedContainer[plan.maxSy - plan.minSy + 1];
+            boolean any = false;
+            for (int sy = plan.minSy; sy <= plan.maxSy; sy++) {
+                ChunkSection section = chunk.getSection(dest.sectionCoordToIndex(sy));
+                PalettedContainer<BlockState> container = section.getBlockStateContainer();
+                long key = ChunkSectionPos.asLong(cx, sy, cz);
+                stats.scanned++;
+                // Untouched since it was last restored or verified
+                if (sectionStamps.isClean(key, container)) {
+                    sectionsStamped++;
+                    continue;
+                }
+                // Identity check: two all-air sections never need work
+                if (section.isEmpty() && plan.isTemplateAir(source, cx, sy, cz)) {
+                    sectionStamps.confirm(key, container);
+                    continue;
+                }
+                sectionStamps.begin(key, container);
+                snapshot[sy - plan.minSy] = container.copy();
+                any = true;
+            }
+            return any ? snapshot : null;
+        }
+
+        private void applyDiff(ColumnDiff diff) {
+            WorldChunk chunk = dest.getChunk(diff.cx, diff.cz);
+            LongArrayList changed = new LongArrayList(diff.positions.length);
+
+            for (int n = 0; n < diff.sections.length; n++) {
+                int sy = diff.sections[n];
+                int index = dest.sectionCoordToIndex(sy);
+                long key = ChunkSectionPos.asLong(diff.cx, sy, diff.cz);
+                ChunkSection section = chunk.getSection(index);
+                // True if nothing wrote to the section since the snapshot
+                boolean untouched = sectionStamps.claim(key, section.getBlockStateContainer());
+                int from = diff.starts[n];
+                int to = n + 1 < diff.sections.length ? diff.starts[n + 1] : diff.positions.length;
+
+                if (from < to && untouched && diff.containers[n] != null) {
+                    // The snapshot is still current, so swap in a copy of the template's container
+                    // (keeping our own biomes) and take the worker's positions as the changes
+                    ChunkSection restored = new ChunkSection(diff.containers[n].copy(), section.getBiomeContainer());
+                    chunk.getSectionArray()[index] = restored;
+                    changed.addElements(changed.size(), diff.positions, from, to - from);
+                    for (int i = from; i < to; i++) {
+                        updatePoi(diff.positions[i], diff.previous[i], diff.states[i]);
+                    }
+                    sectionsCopied++;
+                    sectionsSwapped++;
+                    sectionStamps.confirm(key, restored.getBlockStateContainer());
+                    continue;
+                }
+
+                int before = changed.size();
+                for (int i = from; i < to; i++) {
+                    long packed = diff.positions[i];
+                    int x = BlockPos.unpackLongX(packed);
+                    int y = BlockPos.unpackLongY(packed);
+                    int z = BlockPos.unpackLongZ(packed);
+                    // The snapshot may be a few ticks old, so compare against the live section again
+                    BlockState current = section.getBlockState(x & 15, y & 15, z & 15);
+                    if (current != diff.states[i]) {
+                        section.setBlockState(x & 15, y & 15, z & 15, diff.states[i], false);
+                        updatePoi(packed, current, diff.states[i]);
+                        changed.add(packed);
+                    }
+                }
+                if (changed.size() > before) {
+                    sectionsCopied++;
+                }
+                if (untouched) {
+                    sectionStamps.confirm(key, section.getBlockStateContainer());
+                }
+            }
+
+            if (!changed.isEmpty()) {
+                stats.changed += changed.size();
+                finishChunk(chunk, changed);
+            }
+            columnsDone.incrementAndGet();
+        }
+    }
+
+    // Blocks of one chunk column that differ from the template, computed by a worker
+    private static class ColumnDiff {
+        final int cx, cz;
+        // Section coordinates the worker compared, and where each one's changes start in positions
+        final int[] sections;
+        final int[] starts;
+        // Per section: the template's container when the whole section can be swapped, else null
+        final PalettedContainer<BlockState>[] containers;
+        final long[] positions;
+        final BlockState[] states;
+        // What the snapshot held at each position
+        final BlockState[] previous;
+
+        ColumnDiff(int cx, int cz, int[] sections, int[] starts, PalettedContainer<BlockState>[] containers,
+                long[] positions, BlockState[] states, BlockState[] previous) {
+            this.cx = cx;
+            this.cz = cz;
+            this.sections = sections;
+            this.starts = starts;
+            this.containers = containers;
+            this.positions = positions;
+            this.states = states;
+            this.previous = previous;
         }
-        
-        private void forceLoadChunks(ServerWorld world, GameConfig.MapRegion region, boolean load) {
-           // Simple implementation: load chunks covering the region
-           int minCx = region.getMinPt().x >> 4;
-           int minCz = region.getMinPt().z >> 4;
-           int maxCx = region.getMaxPt().x >> 4;
-           int maxCz = region.getMaxPt().z >> 4;
-           
-           for (int cx = minCx; cx <= maxCx; cx++) {
-               for (int cz = minCz; cz <= maxCz; cz++) {
-                   world.setChunkForced(cx, cz, load);
-               }
-           }
+    }
+
+    // Immutable per-region bounds and offsets, safe to share with worker threads
+    private static class RegionPlan {
+        final int minX, minY, minZ, maxX, maxY, maxZ;
+        final int offX, offY, offZ;
+        final int minCx, maxCx, minCz, maxCz;
+        final int minSy, maxSy;
+        final boolean aligned;
+
+        RegionPlan(ActiveRestore restore) {
+            minX = restore.minX;
+            minY = restore.minY;
+            minZ = restore.minZ;
+            maxX = restore.maxX;
+            maxY = restore.maxY;
+            maxZ = restore.maxZ;
+            offX = restore.offX;
+            offY = restore.offY;
+            offZ = restore.offZ;
+            minCx = minX >> 4;
+            maxCx = maxX >> 4;
+            minCz = minZ >> 4;
+            maxCz = maxZ >> 4;
+            // Clamp the vertical range to sections that exist in the arena world
+            minSy = Math.max(minY >> 4, restore.dest.getBottomSectionCoord());
+            maxSy = Math.min(maxY >> 4, restore.dest.getBottomSectionCoord() + restore.dest.countVerticalSections() - 1);
+            aligned = (offX & 15) == 0 && (offY & 15) == 0 && (offZ & 15) == 0;
+        }
+
+        boolean isTemplateAir(ArenaTemplate template, int cx, int sy, int cz) {
+            return aligned && templateSection(template, cx, sy, cz).isAir();
+        }
+
+        // The template section an aligned destination section maps to; air outside the template
+        ArenaTemplate.Section templateSection(ArenaTemplate template, int cx, int sy, int cz) {
+            ArenaTemplate.Section section = template.getSection(cx + (offX >> 4), sy + (offY >> 4), cz + (offZ >> 4));
+            return section != null ? section : ArenaTemplate.Section.AIR;
+        }
+
+        // True if the section lies wholly inside the region and maps onto one template section
+        boolean isWholeSection(int cx, int sy, int cz) {
+            return aligned && minX <= cx << 4 && maxX >= (cx << 4) + 15 && minY <= sy << 4
+                    && maxY >= (sy << 4) + 15 && minZ <= cz << 4 && maxZ >= (cz << 4) + 15;
+        }
+
+        // Runs on a worker thread: only reads the template and the snapshot.
+        // With a mismatch counter, partial sections that differ from the template are counted.
+        @SuppressWarnings("unchecked")
+        ColumnDiff diffColumn(ArenaTemplate template, PalettedContainer<BlockState>[] snapshot, int cx, int cz,
+                AtomicInteger mismatched) {
+            IntArrayList sections = new IntArrayList();
+            IntArrayList starts = new IntArrayList();
+            List<PalettedContainer<BlockState>> containers = new ArrayList<>();
+            LongArrayList positions = new LongArrayList();
+            List<BlockState> states = new ArrayList<>();
+            List<BlockState> previous = new ArrayList<>();
+
+            for (int sy = minSy; sy <= maxSy; sy++) {
+                PalettedContainer<BlockState> container = snapshot[sy - minSy];
+                if (container == null) continue;
+                sections.add(sy);
+                starts.add(positions.size());
+                containers.add(null);
+
+                // Same hash as the template section: nothing to diff
+                if (isWholeSection(cx, sy, cz)) {
+                    if (ArenaTemplate.hashContainer(container) == templateSection(template, cx, sy, cz).getHash()) {
+                        continue;
+                    }
+                    if (mismatched != null) {
+                        mismatched.incrementAndGet();
+                    }
+                }
+
+                int baseX = cx << 4, baseY = sy << 4, baseZ = cz << 4;
+                // Section-local bounds of the region
+                int x0 = Math.max(minX, baseX) - baseX, x1 = Math.min(maxX, baseX + 15) - baseX;
+                int y0 = Math.max(minY, baseY) - baseY, y1 = Math.min(maxY, baseY + 15) - baseY;
+                int z0 = Math.max(minZ, baseZ) - baseZ, z1 = Math.min(maxZ, baseZ + 15) - baseZ;
+
+                // Whole aligned sections skip the per-block region lookup
+                ArenaTemplate.Section srcSection = aligned
+                        ? template.getSection(cx + (offX >> 4), sy + (offY >> 4), cz + (offZ >> 4))
+                        : null;
+                int before = positions.size();
+
+                for (int y = y0; y <= y1; y++) {
+                    for (int z = z0; z <= z1; z++) {
+                        for (int x = x0; x <= x1; x++) {
+                            BlockState srcState = srcSection != null
+                                    ? template.getBlockState(srcSection, x, y, z)
+                                    : template.getBlockState(baseX + x + offX, baseY + y + offY, baseZ + z + offZ);
+                            BlockState current = container.get(x, y, z);
+                            if (srcState != current) {
+                                positions.add(BlockPos.asLong(baseX + x, baseY + y, baseZ + z));
+                                states.add(srcState);
+                                previous.add(current);
+                            }
+                        }
+                    }
+                }
+                if (positions.size() > before) {
+                    if (isWholeSection(cx, sy, cz)) {
+                        containers.set(containers.size() - 1,
+                                template.getContainer(templateSection(template, cx, sy, cz)));
+                    } else if (mismatched != null) {
+                        // Whole sections were already counted when their hash was checked
+                        mismatched.incrementAndGet();
+                    }
+                }
+            }
+
+            return new ColumnDiff(cx, cz, sections.toIntArray(), starts.toIntArray(),
+                    containers.toArray(new PalettedContainer[0]), positions.toLongArray(),
+                    states.toArray(new BlockState[0]), previous.toArray(new BlockState[0]));
+        }
+    }
+
+    /**
+     * Journal restore: only revisits the positions recorded in the world's
+     * {@link ChangeJournal} since the last restore, grouped by chunk so each
+     * chunk is fixed up and resent once. Cost scales with what players did in
+     * the match instead of with map volume.
+     */
+    private static class JournalRestore extends ActiveRestore {
+        private final ObjectIterator<LongArrayList> pendingChunks;
+
+        public JournalRestore(ArenaTemplate source, ServerWorld dest, List<RegionPair> regions, long[] positions,
+                Runnable onComplete) {
+            super("JOURNAL", source, dest, regions, onComplete);
+
+            Long2ObjectLinkedOpenHashMap<LongArrayList> byChunk = new Long2ObjectLinkedOpenHashMap<>();
+            for (long packed : positions) {
+                long chunkKey = ChunkPos.toLong(BlockPos.unpackLongX(packed) >> 4, BlockPos.unpackLongZ(packed) >> 4);
+                byChunk.computeIfAbsent(chunkKey, key -> new LongArrayList()).add(packed);
+            }
+            this.pendingChunks = byChunk.values().iterator();
+            stats.unitsTotal = byChunk.size();
+        }
+
+        @Override
+        public boolean tick(long deadline) {
+            while (pendingChunks.hasNext()) {
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                revertChunk(pendingChunks.next());
+                stats.unitsDone++;
+            }
+
+            System.out.println("Journal restore done: " + stats.scanned + " blocks checked, " + stats.changed
+                    + " reverted.");
+            return true;
+        }
+
+        private void revertChunk(LongArrayList positions) {
+            long first = positions.getLong(0);
+            WorldChunk chunk = dest.getChunk(BlockPos.unpackLongX(first) >> 4, BlockPos.unpackLongZ(first) >> 4);
+            LongArrayList changed = new LongArrayList();
+
+            for (int i = 0; i < positions.size(); i++) {
+                long packed = positions.getLong(i);
+                int x = BlockPos.unpackLongX(packed);
+                int y = BlockPos.unpackLongY(packed);
+                int z = BlockPos.unpackLongZ(packed);
+
+                RegionPair region = findRegion(x, y, z);
+                if (region == null || dest.isOutOfHeightLimit(y)) continue;
+                stats.scanned++;
+
+                GameConfig.MapPoint srcMin = region.sourceRegion.getMinPt();
+                GameConfig.MapPoint destMin = region.destRegion.getMinPt();
+                BlockState srcState = source.getBlockState(x + srcMin.x - destMin.x, y + srcMin.y - destMin.y,
+                        z + srcMin.z - destMin.z);
+
+                ChunkSection section = chunk.getSection(dest.getSectionIndex(y));
+                BlockState current = section.getBlockState(x & 15, y & 15, z & 15);
+                if (current != srcState) {
+                    section.setBlockState(x & 15, y & 15, z & 15, srcState);
+                    updatePoi(packed, current, srcState);
+                    changed.add(packed);
+                    stats.changed++;
+                }
+            }
+
+            if (!changed.isEmpty()) {
+                finishChunk(chunk, changed);
+            }
         }
     }
 }
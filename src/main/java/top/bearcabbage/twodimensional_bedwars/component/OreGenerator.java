@@ -1,13 +1,13 @@
 package top.bearcabbage.twodimensional_bedwars.component;
 
-import java.util.List;
-
 import net.minecraft.entity.ItemEntity;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
+import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Box;
+import top.bearcabbage.twodimensional_bedwars.config.GameConfig;
+import top.bearcabbage.twodimensional_bedwars.world.GameEntities;
 
 public class OreGenerator {
     private final BlockPos location;
@@ -16,8 +16,19 @@ public class OreGenerator {
     private double delaySeconds;
     private int limit;
     private final String identifier; // e.g. "Diamond", "Sapphire" (custom)
+    private int level = 1; // Shown on the hologram: public generator tier or team forge level + 1
+    // Items of our drops still lying in the world, kept exact by ItemEntityMixin and entity unloads
+    private int dropCount;
+    // The stack each spawn grows, until it is picked up, rolls away or fills
+    private ItemEntity pile;
+    // Items produced while no participant was near, put into the world when one comes
+    private int stockpile;
+    // Extra blocks players must move away before the pile goes back into the stockpile
+    private static final int STOCKPILE_HYSTERESIS = 8;
 
-    private int currentTimer;
+    // Set while the generator is scheduled on an arena's wheel
+    GeneratorWheel wheel;
+    GeneratorWheel.Entry wheelEntry;
 
     public OreGenerator(BlockPos location, Item itemType, int amount, double delaySeconds, int limit) {
         this(location, itemType, amount, delaySeconds, limit, "Unknown");
@@ -31,49 +42,191 @@ public class OreGenerator {
         this.delaySeconds = delaySeconds;
         this.limit = limit;
         this.identifier = identifier;
-        this.currentTimer = (int) (delaySeconds * 20);
     }
 
     public String getIdentifier() {
         return identifier;
     }
 
+    public BlockPos getLocation() {
+        return location;
+    }
+
+    public Item getItemType() {
+        return itemType;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    /** Whether the limit holds spawning back until items are picked up. */
+    public boolean isFull() {
+        return dropCount + stockpile >= limit;
+    }
+
+    public int getDropCount() {
+        return dropCount;
+    }
+
     public void updateSettings(int amount, double delaySeconds, int limit) {
         this.amount = amount;
         this.delaySeconds = delaySeconds;
         this.limit = limit;
-        // Don't reset timer immediately, just let it tick down.
-        // Or if new delay is much shorter, maybe clamp?
-        // For simplicity: keep current timer but ensure next reset uses new delay.
+        if (wheel != null) {
+            wheel.reschedule(this);
+        }
+    }
+
+    /** Ticks between spawns (configured seconds * 20). */
+    public int getPeriodTicks() {
+        return Math.max(1, (int) (delaySeconds * 20));
+    }
+
+    // Called by the GeneratorWheel once per period
+    void fire(ServerWorld world) {
+        // The limit counts our items in the world, wherever they rolled, plus the stockpile
+        if (isFull())
+            return;
+        if (isWatched(world, 0)) {
+            drop(world, stockpile + amount);
+            stockpile = 0;
+        } else {
+            stockpile += amount;
+        }
     }
 
-    public void tick(ServerWorld world) {
-        currentTimer--;
+    /**
+     * Brings the stockpile into the world once a participant comes within
+     * range, and takes the pile back into it once they are all well out of
+     * range. Called a few times a second by the arena.
+     */
+    public void updateStockpile(ServerWorld world) {
+        int range = GameConfig.getInstance().generatorStockpileRange;
+        if (range <= 0) {
+            if (stockpile > 0) {
+                drop(world, stockpile);
+                stockpile = 0;
+            }
+            return;
+        }
+        if (stockpile > 0 && isWatched(world, 0)) {
+            drop(world, stockpile);
+            stockpile = 0;
+        } else if (pile != null && !isWatched(world, STOCKPILE_HYSTERESIS) && pileAtGenerator()) {
+            stockpile += pile.getStack().getCount();
+            pile.discard(); // The unload event releases its count
+            pile = null;
+        }
+    }
 
-        // Update Hologram logic would go here (visual packet)
+    public int getStockpile() {
+        return stockpile;
+    }
 
-        if (currentTimer <= 0) {
-            spawnItem(world);
-            currentTimer = (int) (delaySeconds * 20); // Reset to configured seconds * 20 ticks
+    // Whether a participant is within the stockpile range (plus extra blocks) of the generator
+    private boolean isWatched(ServerWorld world, int extra) {
+        int range = GameConfig.getInstance().generatorStockpileRange;
+        if (range <= 0)
+            return true;
+        double maxSq = (double) (range + extra) * (range + extra);
+        for (ServerPlayerEntity player : world.getPlayers()) {
+            if (!player.isSpectator() && player.squaredDistanceTo(location.getX() + 0.5, location.getY() + 0.5,
+                    location.getZ() + 0.5) <= maxSq)
+                return true;
         }
+        return false;
     }
 
-    private void spawnItem(ServerWorld world) {
-        // Scan for existing items to enforce limit
-        Box checkArea = new Box(location).expand(2.0);
-        List<ItemEntity> nearbyItems = world.getEntitiesByClass(ItemEntity.class, checkArea,
-                entity -> entity.getStack().getItem() == itemType);
+    // Puts count items into the world: onto the pile while it has room, then as new piles
+    private void drop(ServerWorld world, int count) {
+        while (count > 0) {
+            int part = Math.min(count, itemType.getMaxCount());
+            if (!growPile(part) && !spawnPile(world, part))
+                return;
+            count -= part;
+        }
+    }
 
-        int currentCount = nearbyItems.stream().mapToInt(entity -> entity.getStack().getCount()).sum();
+    private boolean spawnPile(ServerWorld world, int count) {
+        ItemStack stack = new ItemStack(itemType, count);
+        ItemEntity itemEntity = new ItemEntity(world, location.getX() + 0.5, location.getY() + 0.5,
+                location.getZ() + 0.5, stack);
+        itemEntity.setVelocity(0, 0, 0);
+        itemEntity.setToDefaultPickupDelay();
+        itemEntity.age = -32768; // Effectively infinite lifetime (takes ~27 minutes to despawn)
+        if (!GameEntities.spawn(world, itemEntity, GameEntities.Kind.GENERATOR_DROP))
+            return false;
+        track(itemEntity);
+        pile = itemEntity;
+        return true;
+    }
 
-        if (currentCount < limit) {
-            ItemStack stack = new ItemStack(itemType, amount);
-            ItemEntity itemEntity = new ItemEntity(world, location.getX() + 0.5, location.getY() + 0.5,
-                    location.getZ() + 0.5, stack);
-            itemEntity.setVelocity(0, 0, 0);
-            itemEntity.setToDefaultPickupDelay();
-            itemEntity.age = -32768; // Effectively infinite lifetime (takes ~27 minutes to despawn)
-            world.spawnEntity(itemEntity);
+    // Adds count items to the pile if it is still lying at the generator with room for them
+    private boolean growPile(int count) {
+        if (!pileAtGenerator()) {
+            pile = null;
+            return false;
         }
+        ItemStack stack = pile.getStack();
+        if (stack.getCount() + count > stack.getMaxCount())
+            return false;
+        // A new stack instance so the tracked data is marked dirty and clients see the count
+        pile.setStack(stack.copyWithCount(stack.getCount() + count));
+        syncDrop(pile);
+        return true;
+    }
+
+    private boolean pileAtGenerator() {
+        return pile != null && !pile.isRemoved() && pile.getStack().getItem() == itemType
+                && pile.squaredDistanceTo(location.getX() + 0.5, location.getY() + 0.5, location.getZ() + 0.5) <= 4.0;
+    }
+
+    private void track(ItemEntity entity) {
+        GeneratorDrop drop = (GeneratorDrop) entity;
+        drop.bedwars$setGenerator(this);
+        drop.bedwars$setCounted(entity.getStack().getCount());
+        dropCount += drop.bedwars$getCounted();
+    }
+
+    /** Re-reads a drop's stack size after a pickup or merge changed it. */
+    public static void syncDrop(ItemEntity entity) {
+        GeneratorDrop drop = (GeneratorDrop) entity;
+        OreGenerator generator = drop.bedwars$getGenerator();
+        if (generator == null)
+            return;
+        if (entity.isRemoved()) {
+            releaseDrop(entity);
+            return;
+        }
+        int count = entity.getStack().getCount();
+        generator.dropCount += count - drop.bedwars$getCounted();
+        drop.bedwars$setCounted(count);
+    }
+
+    /**
+     * A stack absorbing one of our drops becomes ours, so items merged into a
+     * stray stack beside the generator still count towards the limit.
+     */
+    public static void adoptDrop(ItemEntity target, ItemEntity source) {
+        OreGenerator generator = ((GeneratorDrop) source).bedwars$getGenerator();
+        if (generator != null && ((GeneratorDrop) target).bedwars$getGenerator() == null && !target.isRemoved()) {
+            generator.track(target);
+        }
+    }
+
+    /** Stops counting a drop that left the world (picked up, despawned, discarded or unloaded). */
+    public static void releaseDrop(ItemEntity entity) {
+        GeneratorDrop drop = (GeneratorDrop) entity;
+        OreGenerator generator = drop.bedwars$getGenerator();
+        if (generator == null)
+            return;
+        generator.dropCount -= drop.bedwars$getCounted();
+        drop.bedwars$setGenerator(null);
+        drop.bedwars$setCounted(0);
     }
 }
@@ -0,0 +1,117 @@
+package top.bearcabbage.twodimensional_bedwars.component;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.world.World;
+
+/**
+ * Live counters of one restore, updated on the server thread by
+ * {@link MapManager}.
+ *
+ * Progress is counted in the unit the restore mode works in: blocks for
+ * BLOCK, chunk columns for SECTION and chunks for JOURNAL. "Scanned" is what
+ * was compared against the template (blocks, or sections for SECTION),
+ * "changed" is the number of blocks actually written.
+ */
+public class RestoreStats {
+    private final String mode;
+    private final RegistryKey<World> world;
+    private final long startNanos = System.nanoTime();
+    private final long startMillis = System.currentTimeMillis();
+    private long endNanos = -1;
+
+    long unitsTotal;
+    long unitsDone;
+    long scanned;
+    long changed;
+    int chunksResent;
+
+    private int ticks;
+    private long busyNanos;
+    private long maxTickNanos;
+
+    RestoreStats(String mode, RegistryKey<World> world) {
+        this.mode = mode;
+        this.world = world;
+    }
+
+    void recordTick(long nanos) {
+        ticks++;
+        busyNanos += nanos;
+        maxTickNanos = Math.max(maxTickNanos, nanos);
+    }
+
+    void finish() {
+        unitsDone = unitsTotal;
+        endNanos = System.nanoTime();
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public RegistryKey<World> getWorld() {
+        return world;
+    }
+
+    public boolean isFinished() {
+        return endNanos >= 0;
+    }
+
+    /** Wall-clock start, for the history listing. */
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getElapsedMillis() {
+        return ((isFinished() ? endNanos : System.nanoTime()) - startNanos) / 1_000_000L;
+    }
+
+    public float getProgress() {
+        if (unitsTotal <= 0) return isFinished() ? 1.0f : 0.0f;
+        return Math.min(1.0f, (float) unitsDone / unitsTotal);
+    }
+
+    /** Remaining time at the rate seen so far, or -1 until there is a rate. */
+    public long getEtaMillis() {
+        if (isFinished()) return 0;
+        if (unitsDone <= 0) return -1;
+        return getElapsedMillis() * (unitsTotal - unitsDone) / unitsDone;
+    }
+
+    public long getUnitsTotal() {
+        return unitsTotal;
+    }
+
+    public long getUnitsDone() {
+        return unitsDone;
+    }
+
+    public long getScanned() {
+        return scanned;
+    }
+
+    public long getChanged() {
+        return changed;
+    }
+
+    public int getChunksResent() {
+        return chunksResent;
+    }
+
+    public int getTicks() {
+        return ticks;
+    }
+
+    public double getAverageTickMillis() {
+        return ticks == 0 ? 0 : busyNanos / 1_000_000.0 / ticks;
+    }
+
+    public double getMaxTickMillis() {
+        return maxTickNanos / 1_000_000.0;
+    }
+
+    /** Scanned units per second of server-thread time spent on the restore. */
+    public double getThroughput() {
+        return busyNanos == 0 ? 0 : scanned * 1_000_000_000.0 / busyNanos;
+    }
+}
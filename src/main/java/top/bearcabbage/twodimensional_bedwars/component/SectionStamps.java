@@ -0,0 +1,68 @@
+package top.bearcabbage.twodimensional_bedwars.component;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.PalettedContainer;
+
+/**
+ * Remembers, for the sections of one arena world, the block-state container
+ * that was last seen matching the template, keyed by
+ * {@link ChunkSectionPos#asLong}. A section whose current container is still
+ * that instance, and that has not been written through World#setBlockState
+ * since, is skipped by the next section restore without reading a block.
+ *
+ * Any write to a section drops its stamp, and so does unloading its chunk (a
+ * reloaded chunk gets new containers anyway). A restore marks the sections it
+ * snapshots as pending and only stamps them once its changes are applied, so
+ * a write that lands in between keeps the section unstamped.
+ *
+ * Stamps only hold for the template and region layout they were taken with.
+ */
+public class SectionStamps {
+    private final Long2ObjectOpenHashMap<PalettedContainer<BlockState>> clean = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<PalettedContainer<BlockState>> pending = new Long2ObjectOpenHashMap<>();
+    private final ArenaTemplate template;
+    private final long layout;
+
+    public SectionStamps(ArenaTemplate template, long layout) {
+        this.template = template;
+        this.layout = layout;
+    }
+
+    public boolean isFor(ArenaTemplate template, long layout) {
+        return this.template == template && this.layout == layout;
+    }
+
+    /** True if the section still holds the container stamped as matching the template. */
+    public boolean isClean(long section, PalettedContainer<BlockState> container) {
+        return clean.get(section) == container;
+    }
+
+    /** Called when a restore snapshots the section. */
+    public void begin(long section, PalettedContainer<BlockState> container) {
+        clean.remove(section);
+        pending.put(section, container);
+    }
+
+    /** True if nothing wrote to the section since {@link #begin}; ends the pending state either way. */
+    public boolean claim(long section, PalettedContainer<BlockState> container) {
+        return pending.remove(section) == container;
+    }
+
+    /** Stamps the container as matching the template. */
+    public void confirm(long section, PalettedContainer<BlockState> container) {
+        clean.put(section, container);
+    }
+
+    public void invalidate(long section) {
+        clean.remove(section);
+        pending.remove(section);
+    }
+
+    public void forgetChunk(int cx, int cz, int minSy, int maxSy) {
+        for (int sy = minSy; sy <= maxSy; sy++) {
+            invalidate(ChunkSectionPos.asLong(cx, sy, cz));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package top.bearcabbage.twodimensional_bedwars.component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import top.bearcabbage.twodimensional_bedwars.TwoDimensionalBedWars;
+
+/**
+ * Copies the map_template region files out of the mod jar into the blueprint
+ * dimension, skipping files that are already there.
+ *
+ * A manifest next to the copied files records, per file, the SHA-256 of the
+ * jar copy and the size and modification time of the file written. A file is
+ * copied again only if its content hash changed or the copy on disk was
+ * touched since (the blueprint world may have saved chunks into it).
+ *
+ * The import runs on its own thread while the server keeps starting and is
+ * joined before the blueprint world can read its region files.
+ */
+public class TemplateImport {
+    private static final String MANIFEST = "import_manifest.txt";
+
+    private static CompletableFuture<Void> pending;
+
+    /** Starts importing {@code sourcePath/region} into {@code destPath} in the background. */
+    public static void start(Path sourcePath, Path destPath) {
+        pending = CompletableFuture.runAsync(() -> {
+            try {
+                run(sourcePath, destPath);
+            } catch (IOException e) {
+                TwoDimensionalBedWars.LOGGER.error("Failed to import map", e);
+            }
+        }, runnable -> {
+            Thread thread = new Thread(runnable, "BedWars-Map-Import");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    /** Waits for an import started by {@link #start}; does nothing if there is none. */
+    public static void await() {
+        if (pending == null) return;
+        pending.join();
+        pending = null;
+    }
+
+    private static void run(Path sourcePath, Path destPath) throws IOException {
+        long startTime = System.nanoTime();
+        Path manifestPath = destPath.resolve(MANIFEST);
+        Map<String, String[]> manifest = readManifest(manifestPath);
+        Map<String, String[]> written = new HashMap<>();
+
+        List<String> copied = new ArrayList<>();
+        int unchanged = 0;
+        List<Path> sources;
+        try (java.util.stream.Stream<Path> stream = Files.walk(sourcePath)) {
+            sources = stream.filter(Files::isRegularFile).sorted().toList();
+        }
+
+        for (Path source : sources) {
+            String relative = sourcePath.relativize(source).toString().replace('\\', '/');
+            if (!relative.startsWith("region"))
+                continue;
+            Path destination = destPath.resolve(relative);
+
+            byte[] data = Files.readAllBytes(source);
+            String hash = sha256(data);
+            String[] entry = manifest.get(relative);
+            if (entry != null && entry[0].equals(hash) && Files.exists(destination)
+                    && String.valueOf(Files.size(destination)).equals(entry[1])
+                    && String.valueOf(Files.getLastModifiedTime(destination).toMillis()).equals(entry[2])) {
+                written.put(relative, entry);
+                unchanged++;
+                continue;
+            }
+
+            Files.createDirectories(destination.getParent());
+            Files.write(destination, data);
+            written.put(relative, new String[] { hash, String.valueOf(Files.size(destination)),
+                    String.valueOf(Files.getLastModifiedTime(destination).toMillis()) });
+            copied.add(relative);
+        }
+
+        // Files the template no longer has
+        List<String> removed = new ArrayList<>();
+        for (String relative : manifest.keySet()) {
+            if (!written.containsKey(relative) && Files.deleteIfExists(destPath.resolve(relative))) {
+                removed.add(relative);
+            }
+        }
+
+        writeManifest(manifestPath, written);
+        TwoDimensionalBedWars.LOGGER.info("Map import done in {}ms: {} copied {}, {} unchanged, {} removed {}",
+                (System.nanoTime() - startTime) / 1_000_000, copied.size(), copied, unchanged, removed.size(),
+                removed);
+    }
+
+    // relative path -> { sha256, size, mtime }
+    private static Map<String, String[]> readManifest(Path path) throws IOException {
+        Map<String, String[]> manifest = new HashMap<>();
+        if (!Files.exists(path)) return manifest;
+        for (String line : Files.readAllLines(path)) {
+            String[] parts = line.split("\t");
+            if (parts.length == 4) {
+                manifest.put(parts[0], new String[] { parts[1], parts[2], parts[3] });
+            }
+        }
+        return manifest;
+    }
+
+    private static void writeManifest(Path path, Map<String, String[]> manifest) throws IOException {
+        List<String> lines = new ArrayList<>();
+        manifest.forEach((relative, entry) -> lines.add(relative + "\t" + String.join("\t", entry)));
+        lines.sort(null);
+        Files.createDirectories(path.getParent());
+        Files.write(path, lines);
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
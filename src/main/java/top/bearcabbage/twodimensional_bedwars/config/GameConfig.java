@@ -12,6 +12,7 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
 import net.fabricmc.loader.api.FabricLoader;
+import top.bearcabbage.twodimensional_bedwars.TwoDimensionalBedWars;
 
 public class GameConfig {
     private static GameConfig INSTANCE;
@@ -22,6 +23,8 @@ public class GameConfig {
     public BaseOffsets baseOffsets = new BaseOffsets();
     public RestoreConfig arenaRestoreConfig = new RestoreConfig();
     public int centerPortalOffsetY = -19; // Offset Y-level from arena center for the public portal
+    // Arenas hosted at once; matches beyond the number of arena dimensions wait for one to free up
+    public int arenaInstances = 2;
 
     public GeneratorSetting ironGenerator = new GeneratorSetting(1, 0.5, 48);
     public GeneratorSetting goldGenerator = new GeneratorSetting(1, 2.0, 12);
@@ -29,6 +32,8 @@ public class GameConfig {
     public GeneratorSetting emeraldGenerator = new GeneratorSetting(1, 30.0, 2);
     public GeneratorSetting quartzGenerator = new GeneratorSetting(1, 0.5, 64);
     public GeneratorSetting netheriteGenerator = new GeneratorSetting(1, 45.0, 2);
+    // Generators with no participant this close (blocks) stockpile instead of spawning items; 0 always spawns
+    public int generatorStockpileRange = 24;
 
     // Base Generator Progression (Levels 0-4)
     public List<ForgeLevel> forgeLevels = defaultForgeLevels();
@@ -426,6 +431,8 @@ public class GameConfig {
 
         if (arenaRestoreConfig == null)
             arenaRestoreConfig = new RestoreConfig();
+        if (arenaRestoreConfig.poolSize < 1)
+            arenaRestoreConfig.poolSize = Math.max(1, arenaRestoreConfig.arenaDimensions.size());
         
         if (ironGenerator == null)
             ironGenerator = new GeneratorSetting(1, 0.5, 48);
@@ -458,6 +465,16 @@ public class GameConfig {
             publicGeneratorLevels = defaultPublicGeneratorLevels();
         if (eventSettings == null)
             eventSettings = new EventSettings();
+        if (matchmaking == null)
+            matchmaking = new MatchmakingConfig();
+        if (matchmaking.teamsPerMatch != 2 && matchmaking.teamsPerMatch != 4) {
+            int corrected = matchmaking.teamsPerMatch > 2 ? 4 : 2;
+            TwoDimensionalBedWars.LOGGER.warn("matchmaking.teamsPerMatch must be 2 or 4, got {}; using {}",
+                    matchmaking.teamsPerMatch, corrected);
+            matchmaking.teamsPerMatch = corrected;
+        }
+        if (matchmaking.teamSize < 1)
+            matchmaking.teamSize = 1;
     }
     
     private void fixTeamConfig(TeamConfig tc) {
@@ -493,6 +510,15 @@ public class GameConfig {
         public int gameEndSeconds = 2520; // 42 mins
     }
 
+    public MatchmakingConfig matchmaking = new MatchmakingConfig();
+
+    public static class MatchmakingConfig {
+        public int teamsPerMatch = 2; // 2 or 4 (the map has four bases); other values are corrected on load
+        public int teamSize = 2; // Players per team, a match is full at teamsPerMatch * teamSize
+        public int minPlayers = 2; // Fewest players a match is started with once the wait below runs out
+        public int fillTimeoutSeconds = 30; // How long the longest-waiting player waits for a full match
+    }
+
     // Public Generator Levels (Diamond/Emerald etc upgrades)
     public List<PublicGeneratorLevel> publicGeneratorLevels = defaultPublicGeneratorLevels();
 
@@ -548,7 +574,26 @@ public class GameConfig {
         public MapRegion arena1Bounds = new MapRegion(0, 85, 0, 100, 45, 100);
         public MapRegion arena2Bounds = new MapRegion(400, 85, 0, 100, 45, 100);
         public MapRegion arena1Template = new MapRegion(0, 85, 0, 100, 45, 100);
+        // Template and bounds should be a multiple of 16 blocks apart on every axis, or restores of that arena
+        // lose the whole-section skip and swap; arena2's default z offset of 33 is not, a warning is logged
         public MapRegion arena2Template = new MapRegion(400, 85, -33, 100, 45, 100);
+        // SECTION = copy whole chunk sections from the blueprint, BLOCK = legacy block-by-block copy,
+        // JOURNAL = only revert blocks changed since the last restore (full SECTION scan as fallback)
+        public String mode = "SECTION";
+        // Max distinct positions the JOURNAL mode tracks before falling back to a full scan
+        public int journalCapacity = 262144;
+        // Restores only use what is left of each tick up to this MSPT (capped at the server's tick length)
+        public double targetMspt = 45.0;
+        // Time restores always get per tick, even when the server is over target, so they still finish
+        public double minSliceMillis = 1.0;
+        // Dimensions matches rotate through; idle ones are restored in the background
+        public List<String> arenaDimensions = new ArrayList<>(
+                List.of("two-dimensional-bedwars:arena", "two-dimensional-bedwars:arena_b"));
+        // Arena worlds in the pool: the dimensions above, then worlds created at runtime up to this many
+        public int poolSize = 4;
+        // After each restore, hash the sections not stamped clean against the template on worker threads
+        // and rewrite the ones that differ. The server thread only copies those sections
+        public boolean verifyAfterRestore = true;
     }
 
     public static class MapRegion {
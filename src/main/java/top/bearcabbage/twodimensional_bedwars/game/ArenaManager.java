@@ -1,10 +1,31 @@
 package top.bearcabbage.twodimensional_bedwars.game;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.world.World;
 import top.bearcabbage.twodimensional_bedwars.api.IArena;
+import top.bearcabbage.twodimensional_bedwars.component.ArenaBuffers;
 
+/**
+ * Hosts every arena of the server. Arenas run independently; each match takes
+ * its own dimension from the shared {@link ArenaBuffers} pool, so as many
+ * matches can run at once as there are arena dimensions.
+ *
+ * Players are routed through a player to arena index that arenas keep up to
+ * date as players join and leave.
+ */
 public class ArenaManager {
     private static ArenaManager instance;
-    private IArena arena;
+    private final List<IArena> arenas = new ArrayList<>();
+    private final Map<UUID, IArena> playerArenas = new HashMap<>();
+    private final ArenaBuffers buffers = new ArenaBuffers();
+    private final MatchmakingQueue queue = new MatchmakingQueue();
+    private final TickScheduler scheduler = new TickScheduler();
 
     private ArenaManager() {
     }
@@ -17,14 +38,80 @@ public class ArenaManager {
     }
 
     public void registerArena(IArena arena) {
-        this.arena = arena;
+        arenas.add(arena);
+    }
+
+    public List<IArena> getArenas() {
+        return arenas;
+    }
+
+    public IArena getArena(String id) {
+        for (IArena arena : arenas) {
+            if (arena.getId().equals(id)) return arena;
+        }
+        return null;
+    }
+
+    /** The arena a player is waiting in, playing in or spectating, or null. */
+    public IArena getArena(UUID player) {
+        return playerArenas.get(player);
+    }
+
+    public IArena getArena(ServerPlayerEntity player) {
+        return playerArenas.get(player.getUuid());
+    }
+
+    /** The arena whose match is starting or running in a world, or null. */
+    public IArena getArenaByWorld(World world) {
+        for (IArena arena : arenas) {
+            // A waiting arena may still point at the dimension its last match used
+            if (arena.getStatus() != IArena.GameStatus.WAITING && arena.getGameWorld() == world) return arena;
+        }
+        return null;
+    }
+
+    /**
+     * An arena a player can join: one already counting down, otherwise the
+     * waiting one with the most players, otherwise null.
+     */
+    public IArena findJoinable() {
+        IArena best = null;
+        for (IArena arena : arenas) {
+            if (arena.getStatus() == IArena.GameStatus.STARTING) return arena;
+            if (arena.getStatus() == IArena.GameStatus.WAITING && (best == null
+                    || arena.getParticipantUUIDs().size() > best.getParticipantUUIDs().size())) {
+                best = arena;
+            }
+        }
+        return best;
+    }
+
+    // Called by arenas as players join and leave
+    public void bindPlayer(UUID player, IArena arena) {
+        playerArenas.put(player, arena);
+    }
+
+    public void unbindPlayer(UUID player, IArena arena) {
+        playerArenas.remove(player, arena);
+    }
+
+    public void unbindAll(IArena arena) {
+        playerArenas.values().removeIf(bound -> bound == arena);
+    }
+
+    public ArenaBuffers getBuffers() {
+        return buffers;
+    }
+
+    public MatchmakingQueue getQueue() {
+        return queue;
     }
 
-    public IArena getArena() {
-        return arena;
+    public TickScheduler getScheduler() {
+        return scheduler;
     }
 
-    public boolean startGame(net.minecraft.server.world.ServerWorld world, int teamCount) {
+    public boolean startGame(IArena arena, net.minecraft.server.world.ServerWorld world, int teamCount) {
         if (arena == null)
             return false;
         if (arena.getStatus() != IArena.GameStatus.WAITING)
@@ -33,7 +120,7 @@ public class ArenaManager {
         return true;
     }
 
-    public boolean stopGame() {
+    public boolean stopGame(IArena arena) {
         if (arena == null)
             return false;
         arena.stopGame();
@@ -0,0 +1,213 @@
+package top.bearcabbage.twodimensional_bedwars.game;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Timing of arena subsystems, mixins and event callbacks on the server thread.
+ *
+ * Call sites wrap their work in {@code long t = ArenaProfiler.begin(); ...
+ * ArenaProfiler.end(SECTION, t);}. While no profile is running, begin() is a
+ * single field read and end() returns right away. While one runs, every
+ * section records its durations into a log-linear histogram (four buckets
+ * per power of two) and the bytes the server thread allocated inside it.
+ *
+ * A profile runs for a fixed time started by {@link #start} on the server
+ * thread; {@link #tick} ends it and hands the results to the caller.
+ */
+public class ArenaProfiler {
+    private static final int BUCKETS = 256;
+
+    private static final Map<String, Section> sections = new ConcurrentHashMap<>();
+    private static final com.sun.management.ThreadMXBean threads = ManagementFactory
+            .getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported() ? bean : null;
+
+    // Fixed sections; scheduler jobs add one each
+    public static final Section SERVER_TICK = section("bedwars server tick");
+    public static final Section ARENA_TICK = section("arena tick");
+    public static final Section GENERATORS = section("arena generators");
+    public static final Section PLAYERS = section("arena players");
+    public static final Section PORTALS = section("arena portals");
+    public static final Section SUDDEN_DEATH = section("sudden death spawning");
+    public static final Section RESTORE = section("map restore");
+    public static final Section POOL = section("arena pool");
+    public static final Section MATCHMAKING = section("matchmaking");
+    public static final Section BLOCK_JOURNAL = section("mixin block journal");
+    public static final Section BRIDGE_EGG = section("mixin bridge egg");
+    public static final Section EXPLOSION = section("explosion block check");
+    public static final Section EVENT_DEATH = section("event death");
+    public static final Section EVENT_ATTACK_BLOCK = section("event attack block");
+    public static final Section EVENT_BREAK_BLOCK = section("event break block");
+    public static final Section EVENT_USE_BLOCK = section("event use block");
+    public static final Section EVENT_USE_ENTITY = section("event use entity");
+    public static final Section EVENT_DAMAGE = section("event damage");
+
+    private static volatile boolean enabled;
+    // Sections are only recorded on the thread that started the profile
+    private static Thread profiledThread;
+    // Allocation counters at each open begin(), innermost last
+    private static final long[] allocStack = new long[32];
+    private static int depth;
+
+    private static long sessionStartNanos;
+    private static long sessionEndNanos;
+    private static long sessionStartAlloc;
+    private static Consumer<Report> onFinish;
+
+    public static class Section {
+        private final String name;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder allocBytes = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private Section(String name) {
+            this.name = name;
+        }
+
+        private void record(long nanos, long alloc) {
+            buckets.incrementAndGet(bucket(nanos));
+            count.increment();
+            totalNanos.add(nanos);
+            allocBytes.add(alloc);
+            maxNanos.accumulate(nanos);
+        }
+
+        private void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+            count.reset();
+            totalNanos.reset();
+            allocBytes.reset();
+            maxNanos.reset();
+        }
+
+        // Upper bound of the bucket holding the q-th quantile
+        private long percentile(double q) {
+            long total = count.sum();
+            if (total == 0)
+                return 0;
+            long target = (long) Math.ceil(q * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= target)
+                    return Math.min(upperBound(i), maxNanos.get());
+            }
+            return maxNanos.get();
+        }
+    }
+
+    /** Results of one section over a finished profile. */
+    public record Entry(String name, long count, long p50Nanos, long p99Nanos, long maxNanos, long totalNanos,
+            long allocBytes) {
+    }
+
+    /** Results of a finished profile, busiest section first. */
+    public record Report(long durationNanos, long serverAllocBytes, List<Entry> entries) {
+    }
+
+    /** The section of a name, created on first use. Call sites keep it in a static field. */
+    public static Section section(String name) {
+        return sections.computeIfAbsent(name, Section::new);
+    }
+
+    public static long begin() {
+        if (!enabled || Thread.currentThread() != profiledThread)
+            return 0;
+        if (depth < allocStack.length) {
+            allocStack[depth] = allocatedBytes();
+        }
+        depth++;
+        return System.nanoTime();
+    }
+
+    public static void end(Section section, long start) {
+        if (start == 0)
+            return;
+        long elapsed = System.nanoTime() - start;
+        depth--;
+        long alloc = depth >= 0 && depth < allocStack.length ? allocatedBytes() - allocStack[depth] : 0;
+        section.record(elapsed, alloc);
+    }
+
+    public static boolean isRunning() {
+        return enabled;
+    }
+
+    /**
+     * Starts profiling for {@code seconds}. {@code onFinish} gets the report
+     * on the server thread when it ends. Returns false if a profile is
+     * already running.
+     */
+    public static boolean start(int seconds, Consumer<Report> onFinish) {
+        if (enabled)
+            return false;
+        sections.values().forEach(Section::reset);
+        depth = 0;
+        profiledThread = Thread.currentThread();
+        ArenaProfiler.onFinish = onFinish;
+        sessionStartNanos = System.nanoTime();
+        sessionEndNanos = sessionStartNanos + seconds * 1_000_000_000L;
+        sessionStartAlloc = allocatedBytes();
+        enabled = true;
+        return true;
+    }
+
+    // END_SERVER_TICK: ends the running profile once its time is up
+    public static void tick() {
+        if (!enabled || System.nanoTime() < sessionEndNanos)
+            return;
+        enabled = false;
+        long duration = System.nanoTime() - sessionStartNanos;
+        long serverAlloc = allocatedBytes() - sessionStartAlloc;
+
+        List<Entry> entries = new ArrayList<>();
+        for (Section section : sections.values()) {
+            long count = section.count.sum();
+            if (count == 0)
+                continue;
+            entries.add(new Entry(section.name, count, section.percentile(0.5), section.percentile(0.99),
+                    section.maxNanos.get(), section.totalNanos.sum(), section.allocBytes.sum()));
+        }
+        entries.sort(Comparator.comparingLong(Entry::totalNanos).reversed());
+
+        Consumer<Report> callback = onFinish;
+        onFinish = null;
+        if (callback != null) {
+            callback.accept(new Report(duration, serverAlloc, entries));
+        }
+    }
+
+    private static long allocatedBytes() {
+        return threads != null ? threads.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    // Values below 8 get a bucket each; above, four buckets per power of two
+    private static int bucket(long nanos) {
+        if (nanos < 8)
+            return (int) Math.max(0, nanos);
+        int msb = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (msb - 2)) & 3;
+        return (msb - 1) * 4 + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < 8)
+            return bucket;
+        int msb = bucket / 4 + 1;
+        int sub = bucket & 3;
+        return ((5L + sub) << (msb - 2)) - 1;
+    }
+}
@@ -0,0 +1,285 @@
+package top.bearcabbage.twodimensional_bedwars.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+import top.bearcabbage.twodimensional_bedwars.api.IArena;
+import top.bearcabbage.twodimensional_bedwars.component.Arena;
+import top.bearcabbage.twodimensional_bedwars.config.GameConfig;
+
+/**
+ * Collects players who want a match and starts matches for them.
+ *
+ * Players queue alone or as a party; a party always lands on one team. Once a
+ * second the queue checks whether it can fill a match ({@code teamsPerMatch *
+ * teamSize} players), or whether the longest waiting group has waited
+ * {@code fillTimeoutSeconds} and at least {@code minPlayers} are queued. The
+ * batch is taken in queue order, assigned to teams by preference and balance
+ * around the players already waiting in the arena, and started on the waiting
+ * arena with the fewest players. A party that no team has room for stays
+ * queued for the next match.
+ *
+ * Joining, leaving and forming parties are O(1), so a burst of joins costs
+ * nothing until the next dispatch.
+ */
+public class MatchmakingQueue {
+    private static final String[] TEAM_NAMES = { "Red", "Blue", "Green", "Yellow" };
+
+    public enum QueueResult {
+        QUEUED,
+        ALREADY_QUEUED,
+        IN_ARENA,
+        NOT_QUEUED,
+        LEFT
+    }
+
+    public enum PartyResult {
+        REQUESTED,
+        FORMED,
+        FULL,
+        IN_ARENA
+    }
+
+    private static class Group {
+        final List<UUID> members = new ArrayList<>(2);
+        String preferredTeam;
+        long queuedTick;
+    }
+
+    // Queue order; a LinkedHashSet keeps removal from the middle O(1)
+    private final LinkedHashSet<Group> groups = new LinkedHashSet<>();
+    private final Map<UUID, Group> playerGroups = new HashMap<>();
+    // Requester -> player they asked to queue with
+    private final Map<UUID, UUID> partyRequests = new HashMap<>();
+    private int queuedPlayers;
+
+    public QueueResult join(ServerPlayerEntity player) {
+        if (playerGroups.containsKey(player.getUuid()))
+            return QueueResult.ALREADY_QUEUED;
+        if (ArenaManager.getInstance().getArena(player) != null)
+            return QueueResult.IN_ARENA;
+
+        Group group = new Group();
+        group.queuedTick = player.getServer().getTicks();
+        add(group, player.getUuid());
+        groups.add(group);
+        return QueueResult.QUEUED;
+    }
+
+    public QueueResult leave(UUID uuid) {
+        partyRequests.remove(uuid);
+        Group group = playerGroups.remove(uuid);
+        if (group == null)
+            return QueueResult.NOT_QUEUED;
+        group.members.remove(uuid);
+        queuedPlayers--;
+        if (group.members.isEmpty()) {
+            groups.remove(group);
+        }
+        return QueueResult.LEFT;
+    }
+
+    /**
+     * Asks to queue together with {@code target}. Queues the player if needed;
+     * the two groups merge once {@code target} has asked for the player too.
+     */
+    public PartyResult requestParty(ServerPlayerEntity player, ServerPlayerEntity target) {
+        if (ArenaManager.getInstance().getArena(player) != null
+                || ArenaManager.getInstance().getArena(target) != null)
+            return PartyResult.IN_ARENA;
+        join(player);
+
+        UUID uuid = player.getUuid();
+        Group mine = playerGroups.get(uuid);
+        Group theirs = playerGroups.get(target.getUuid());
+        if (mine == theirs)
+            return PartyResult.FORMED;
+        if (theirs == null || !uuid.equals(partyRequests.get(target.getUuid()))) {
+            partyRequests.put(uuid, target.getUuid());
+            return PartyResult.REQUESTED;
+        }
+        if (mine.members.size() + theirs.members.size() > GameConfig.getInstance().matchmaking.teamSize)
+            return PartyResult.FULL;
+
+        // Join their group, which keeps its place in the queue
+        partyRequests.remove(target.getUuid());
+        partyRequests.remove(uuid);
+        groups.remove(mine);
+        queuedPlayers -= mine.members.size();
+        for (UUID member : mine.members) {
+            add(theirs, member);
+        }
+        if (theirs.preferredTeam == null) {
+            theirs.preferredTeam = mine.preferredTeam;
+        }
+        return PartyResult.FORMED;
+    }
+
+    /** Sets the team a queued player's group asks for; false if the player is not queued. */
+    public boolean setPreferredTeam(UUID uuid, String teamName) {
+        Group group = playerGroups.get(uuid);
+        if (group == null)
+            return false;
+        group.preferredTeam = teamName;
+        return true;
+    }
+
+    public boolean isQueued(UUID uuid) {
+        return playerGroups.containsKey(uuid);
+    }
+
+    public int size() {
+        return queuedPlayers;
+    }
+
+    public void tick(MinecraftServer server) {
+        if (server.getTicks() % 20 != 0 || groups.isEmpty())
+            return;
+        GameConfig.MatchmakingConfig config = GameConfig.getInstance().matchmaking;
+        if (queuedPlayers < Math.max(1, config.minPlayers))
+            return;
+
+        Arena arena = leastLoadedArena();
+        if (arena == null)
+            return;
+        int teamCount = config.teamsPerMatch; // 2 or 4, checked when the config is loaded
+        int capacity = Math.max(0, teamCount * config.teamSize - arena.getParticipantUUIDs().size());
+
+        boolean timedOut = server.getTicks() - groups.getFirst().queuedTick >= config.fillTimeoutSeconds * 20L;
+        if (queuedPlayers < capacity && !timedOut)
+            return;
+
+        // Queue order, skipping groups that would overflow the match
+        List<Group> batch = new ArrayList<>();
+        int size = 0;
+        for (Group group : groups) {
+            if (size + group.members.size() > capacity)
+                continue;
+            batch.add(group);
+            size += group.members.size();
+            if (size == capacity)
+                break;
+        }
+        if (size == 0)
+            return;
+
+        Map<Group, String> seats = assignTeams(arena, batch, teamCount, config.teamSize);
+        size = 0;
+        for (Group group : seats.keySet()) {
+            size += group.members.size();
+        }
+        if (size == 0 || size + arena.getParticipantUUIDs().size() < config.minPlayers)
+            return;
+
+        for (Map.Entry<Group, String> seat : seats.entrySet()) {
+            Group group = seat.getKey();
+            groups.remove(group);
+            for (UUID uuid : group.members) {
+                playerGroups.remove(uuid);
+                partyRequests.remove(uuid);
+                queuedPlayers--;
+                arena.setPreferredTeam(uuid, seat.getValue());
+                ServerPlayerEntity player = server.getPlayerManager().getPlayer(uuid);
+                if (player != null) {
+                    player.sendMessage(Text.translatable("two-dimensional-bedwars.queue.match_found", arena.getId()),
+                            false);
+                }
+            }
+        }
+        arena.startMatchmadeGame(server.getOverworld(), teamCount);
+    }
+
+    private void add(Group group, UUID uuid) {
+        group.members.add(uuid);
+        playerGroups.put(uuid, group);
+        queuedPlayers++;
+    }
+
+    // The waiting arena with the fewest players, if a dimension is free for it
+    private Arena leastLoadedArena() {
+        if (!ArenaManager.getInstance().getBuffers().hasFree()
+                && ArenaManager.getInstance().getBuffers().size() > 0)
+            return null;
+        Arena best = null;
+        for (IArena arena : ArenaManager.getInstance().getArenas()) {
+            if (arena instanceof Arena impl && impl.getStatus() == IArena.GameStatus.WAITING
+                    && (best == null || impl.getParticipantUUIDs().size() < best.getParticipantUUIDs().size())) {
+                best = impl;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Picks a team for every group of the batch. Players already waiting in
+     * the arena are seated first: they keep their preferred team while it has
+     * room, the others go to the emptiest team that still has a seat and their
+     * choice is written back to the arena. If every team is full they are left
+     * for the arena to place. Queued groups follow, largest first, on their
+     * preferred team or else the emptiest one. Groups that fit on no team are
+     * left out of the result.
+     */
+    private Map<Group, String> assignTeams(Arena arena, List<Group> batch, int teamCount, int teamSize) {
+        int[] free = new int[teamCount];
+        Arrays.fill(free, teamSize);
+        List<UUID> unseated = new ArrayList<>();
+        for (UUID uuid : arena.getParticipantUUIDs()) {
+            int team = teamIndex(arena.getPreferredTeam(uuid), teamCount);
+            if (team >= 0 && free[team] > 0) {
+                free[team]--;
+            } else {
+                unseated.add(uuid);
+            }
+        }
+
+        for (UUID uuid : unseated) {
+            int chosen = emptiestTeam(free);
+            if (free[chosen] <= 0)
+                break;
+            free[chosen]--;
+            arena.setPreferredTeam(uuid, TEAM_NAMES[chosen]);
+        }
+
+        Map<Group, String> seats = new IdentityHashMap<>();
+        List<Group> bySize = new ArrayList<>(batch);
+        bySize.sort(Comparator.comparingInt((Group group) -> group.members.size()).reversed());
+        for (Group group : bySize) {
+            int chosen = teamIndex(group.preferredTeam, teamCount);
+            if (chosen < 0 || free[chosen] < group.members.size()) {
+                chosen = emptiestTeam(free);
+            }
+            if (free[chosen] < group.members.size())
+                continue;
+            free[chosen] -= group.members.size();
+            seats.put(group, TEAM_NAMES[chosen]);
+        }
+        return seats;
+    }
+
+    private static int teamIndex(String teamName, int teamCount) {
+        for (int i = 0; i < teamCount; i++) {
+            if (TEAM_NAMES[i].equalsIgnoreCase(teamName))
+                return i;
+        }
+        return -1;
+    }
+
+    private static int emptiestTeam(int[] free) {
+        int chosen = 0;
+        for (int i = 1; i < free.length; i++) {
+            if (free[i] > free[chosen])
+                chosen = i;
+        }
+        return chosen;
+    }
+}
@@ -14,10 +14,15 @@ import top.bearcabbage.twodimensional_bedwars.api.ITeam;
 import top.bearcabbage.twodimensional_bedwars.component.Arena;
 
 public class ScoreboardManager {
-    private static final String OBJECTIVE_NAME = "bedwars_game";
+    private static final String OBJECTIVE_PREFIX = "bedwars_game_";
     private final Arena arena;
     private final MinecraftServer server;
+    private final String objectiveName;
+    // Appended to every line token so each arena's score holders are distinct
+    private final String tokenSuffix;
     private ScoreboardObjective objective;
+    // Players the sidebar has been sent to; every arena has its own, so it is not shown through the global slot
+    private final java.util.Set<java.util.UUID> viewers = new java.util.HashSet<>();
 
     // Map of Line Index -> Team Name (for reusing teams)
     private final Map<Integer, String> lineTeams = new HashMap<>();
@@ -30,29 +35,35 @@ public class ScoreboardManager {
     public ScoreboardManager(Arena arena, MinecraftServer server) {
         this.arena = arena;
         this.server = server;
+        this.objectiveName = OBJECTIVE_PREFIX + arena.getId();
+        int index = ArenaManager.getInstance().getArenas().indexOf(arena);
+        this.tokenSuffix = LINE_TOKENS[Math.max(0, index) % LINE_TOKENS.length];
+    }
+
+    private String token(int line) {
+        return LINE_TOKENS[line] + tokenSuffix;
     }
 
     public void setup() {
         ServerScoreboard scoreboard = server.getScoreboard();
 
-        scoreboard.setObjectiveSlot(ScoreboardDisplaySlot.SIDEBAR, null);
-
         // Clear old objective if exists
-        ScoreboardObjective old = scoreboard.getNullableObjective(OBJECTIVE_NAME);
+        ScoreboardObjective old = scoreboard.getNullableObjective(objectiveName);
         if (old != null) {
             scoreboard.removeObjective(old);
         }
 
         // Create new Objective
         this.objective = scoreboard.addObjective(
-                OBJECTIVE_NAME,
+                objectiveName,
                 ScoreboardCriterion.DUMMY,
                 Text.translatable("two-dimensional-bedwars.scoreboard.title"),
                 ScoreboardCriterion.RenderType.INTEGER,
                 true,
                 null);
 
-        scoreboard.setObjectiveSlot(ScoreboardDisplaySlot.SIDEBAR, this.objective);
+        // Sent to every client without taking the sidebar; update() points this arena's players at it
+        scoreboard.startSyncing(this.objective);
 
         initializeLines();
     }
@@ -63,8 +74,8 @@ public class ScoreboardManager {
 
         // We'll prepare lines 9 down to 1
         for (int i = 0; i < 9; i++) {
-            String teamName = "bw_line_" + i;
-            String token = LINE_TOKENS[i];
+            String teamName = "bw_" + arena.getId() + "_line_" + i;
+            String token = token(i);
 
             Team team = scoreboard.getTeam(teamName);
             if (team == null) {
@@ -90,6 +101,22 @@ public class ScoreboardManager {
         if (objective == null)
             return;
 
+        // Show the sidebar to players who joined the audience since the last update
+        net.minecraft.network.packet.s2c.play.ScoreboardDisplayS2CPacket display = null;
+        for (java.util.UUID uuid : arena.getAudienceUUIDs()) {
+            if (viewers.contains(uuid))
+                continue;
+            net.minecraft.server.network.ServerPlayerEntity player = server.getPlayerManager().getPlayer(uuid);
+            if (player != null) {
+                if (display == null) {
+                    display = new net.minecraft.network.packet.s2c.play.ScoreboardDisplayS2CPacket(
+                            ScoreboardDisplaySlot.SIDEBAR, objective);
+                }
+                player.networkHandler.sendPacket(display);
+                viewers.add(uuid);
+            }
+        }
+
         // 1. Identify Active Teams
         java.util.List<top.bearcabbage.twodimensional_bedwars.component.BedWarsTeam> activeTeams = new java.util.ArrayList<>();
         for (ITeam t : arena.getTeams()) {
@@ -111,13 +138,13 @@ public class ScoreboardManager {
         for (int i = timerScore + 1; i <= 15; i++) {
             if (i < 1)
                 continue;
-            String token = LINE_TOKENS[i - 1];
+            String token = token(i - 1);
             ((top.bearcabbage.twodimensional_bedwars.mixin.ScoreboardInvoker)server.getScoreboard()).invokeResetScore(net.minecraft.scoreboard.ScoreHolder.fromName(token), objective);
         }
 
         // 4. Ensure Active Lines Have Scores
         for (int i = 1; i <= timerScore; i++) {
-            String token = LINE_TOKENS[i - 1];
+            String token = token(i - 1);
             net.minecraft.scoreboard.ScoreAccess score = objective.getScoreboard()
                     .getOrCreateScore(net.minecraft.scoreboard.ScoreHolder.fromName(token), objective);
             score.setScore(i);
@@ -243,8 +270,21 @@ public class ScoreboardManager {
         }
     }
 
+    // The player's sidebar was cleared on leaving; send it again if they come back
+    public void removeViewer(java.util.UUID uuid) {
+        viewers.remove(uuid);
+    }
+
     public void cleanup() {
         ServerScoreboard scoreboard = server.getScoreboard();
+        for (java.util.UUID uuid : viewers) {
+            net.minecraft.server.network.ServerPlayerEntity player = server.getPlayerManager().getPlayer(uuid);
+            if (player != null) {
+                player.networkHandler.sendPacket(new net.minecraft.network.packet.s2c.play.ScoreboardDisplayS2CPacket(
+                        ScoreboardDisplaySlot.SIDEBAR, null));
+            }
+        }
+        viewers.clear();
         if (objective != null) {
             scoreboard.removeObjective(objective);
             objective = null;
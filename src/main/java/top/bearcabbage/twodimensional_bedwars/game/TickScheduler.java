@@ -0,0 +1,179 @@
+package top.bearcabbage.twodimensional_bedwars.game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs periodic arena work spread evenly over the ticks of its period.
+ *
+ * A job scheduled with period P runs on ticks where {@code tick % P == phase}.
+ * The phase is picked when the job is scheduled: the one whose ticks carry
+ * the least work from the jobs already scheduled, across every arena. Two
+ * jobs with period 10 therefore run five ticks apart instead of together,
+ * and a second arena's jobs fill the gaps left by the first.
+ *
+ * Work is counted over a horizon of {@value #HORIZON} ticks, so periods
+ * should divide it; other periods still run, they just are not balanced.
+ * Each job keeps its own run count and timings.
+ */
+public class TickScheduler {
+    private static final int HORIZON = 120;
+
+    public static class Job {
+        private final String name;
+        private final int period;
+        private final int phase;
+        private final int weight;
+        private final Runnable action;
+        private final ArenaProfiler.Section section;
+        private boolean cancelled;
+
+        private long runs;
+        private long totalNanos;
+        private long maxNanos;
+
+        private Job(String name, int period, int phase, int weight, Runnable action) {
+            this.name = name;
+            this.period = period;
+            this.phase = phase;
+            this.weight = weight;
+            this.action = action;
+            this.section = ArenaProfiler.section("job " + name);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getPeriod() {
+            return period;
+        }
+
+        public int getPhase() {
+            return phase;
+        }
+
+        public long getRuns() {
+            return runs;
+        }
+
+        public double getAverageMicros() {
+            return runs == 0 ? 0 : totalNanos / 1000.0 / runs;
+        }
+
+        public double getMaxMicros() {
+            return maxNanos / 1000.0;
+        }
+    }
+
+    // Work per tick of the horizon, summed over the scheduled jobs
+    private final int[] slotWeight = new int[HORIZON];
+    // Jobs by the tick of the horizon they run on
+    @SuppressWarnings("unchecked")
+    private final List<Job>[] slots = new List[HORIZON];
+    // Jobs whose period does not divide the horizon, checked every tick
+    private final List<Job> irregular = new ArrayList<>();
+    private final List<Job> jobs = new ArrayList<>();
+
+    public TickScheduler() {
+        for (int i = 0; i < HORIZON; i++) {
+            slots[i] = new ArrayList<>();
+        }
+    }
+
+    public Job schedule(String name, int period, Runnable action) {
+        return schedule(name, period, 1, action);
+    }
+
+    /**
+     * Schedules {@code action} every {@code period} ticks on the least loaded
+     * phase. {@code weight} is the job's cost relative to the others.
+     */
+    public Job schedule(String name, int period, int weight, Runnable action) {
+        period = Math.max(1, period);
+        Job job;
+        if (HORIZON % period != 0) {
+            job = new Job(name, period, 0, weight, action);
+            irregular.add(job);
+        } else {
+            job = new Job(name, period, leastLoadedPhase(period), weight, action);
+            for (int t = job.phase; t < HORIZON; t += period) {
+                slots[t].add(job);
+                slotWeight[t] += weight;
+            }
+        }
+        jobs.add(job);
+        return job;
+    }
+
+    /** Stops a job. Safe to call from inside a running job. */
+    public void cancel(Job job) {
+        if (job == null || job.cancelled)
+            return;
+        job.cancelled = true;
+        jobs.remove(job);
+        if (HORIZON % job.period != 0) {
+            irregular.remove(job);
+            return;
+        }
+        for (int t = job.phase; t < HORIZON; t += job.period) {
+            slots[t].remove(job);
+            slotWeight[t] -= job.weight;
+        }
+    }
+
+    public void tick(long tick) {
+        int slot = (int) (tick % HORIZON);
+        // Jobs may cancel themselves or others while running
+        if (!slots[slot].isEmpty()) {
+            for (Job job : new ArrayList<>(slots[slot])) {
+                run(job);
+            }
+        }
+        if (!irregular.isEmpty()) {
+            for (Job job : new ArrayList<>(irregular)) {
+                if (tick % job.period == job.phase) {
+                    run(job);
+                }
+            }
+        }
+    }
+
+    public List<Job> getJobs() {
+        return jobs;
+    }
+
+    private void run(Job job) {
+        if (job.cancelled)
+            return;
+        long profile = ArenaProfiler.begin();
+        long start = System.nanoTime();
+        job.action.run();
+        long elapsed = System.nanoTime() - start;
+        ArenaProfiler.end(job.section, profile);
+        job.runs++;
+        job.totalNanos += elapsed;
+        job.maxNanos = Math.max(job.maxNanos, elapsed);
+    }
+
+    // The phase whose busiest tick is the least busy; ties go to the lower total
+    private int leastLoadedPhase(int period) {
+        int best = 0;
+        int bestMax = Integer.MAX_VALUE;
+        int bestSum = Integer.MAX_VALUE;
+        for (int phase = 0; phase < period; phase++) {
+            int max = 0;
+            int sum = 0;
+            for (int t = phase; t < HORIZON; t += period) {
+                max = Math.max(max, slotWeight[t]);
+                sum += slotWeight[t];
+            }
+            if (max < bestMax || (max == bestMax && sum < bestSum)) {
+                best = phase;
+                bestMax = max;
+                bestSum = sum;
+            }
+        }
+        return best;
+    }
+}
@@ -7,6 +7,7 @@ import net.minecraft.world.explosion.Explosion;
 import net.minecraft.world.explosion.ExplosionBehavior;
 import java.util.Optional;
 import top.bearcabbage.twodimensional_bedwars.game.ArenaManager;
+import top.bearcabbage.twodimensional_bedwars.game.ArenaProfiler;
 import top.bearcabbage.twodimensional_bedwars.component.Arena;
 import top.bearcabbage.twodimensional_bedwars.api.IArena.GameStatus;
 
@@ -19,6 +20,13 @@ public class ArenaExplosionBehavior extends ExplosionBehavior {
 
     @Override
     public boolean canDestroyBlock(Explosion explosion, BlockView world, BlockPos pos, BlockState state, float power) {
+        long profile = ArenaProfiler.begin();
+        boolean result = checkDestroyBlock(explosion, world, pos, state, power);
+        ArenaProfiler.end(ArenaProfiler.EXPLOSION, profile);
+        return result;
+    }
+
+    private boolean checkDestroyBlock(Explosion explosion, BlockView world, BlockPos pos, BlockState state, float power) {
         // Check standard behavior first (fallback)
         if (fallback != null) {
             if (!fallback.canDestroyBlock(explosion, world, pos, state, power)) {
@@ -31,7 +39,8 @@ public class ArenaExplosionBehavior extends ExplosionBehavior {
         }
 
         // Custom Arena Logic
-        if (ArenaManager.getInstance().getArena() instanceof Arena gameArena) {
+        if (world instanceof net.minecraft.world.World explosionWorld
+                && ArenaManager.getInstance().getArenaByWorld(explosionWorld) instanceof Arena gameArena) {
             if (gameArena.getStatus() == GameStatus.PLAYING) {
 
                 // 0. Sudden Death: Allow Creeper Destruction of EVERYTHING
@@ -19,6 +19,7 @@ import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import top.bearcabbage.twodimensional_bedwars.game.ArenaManager;
 import top.bearcabbage.twodimensional_bedwars.component.Arena;
+import top.bearcabbage.twodimensional_bedwars.world.GameEntities;
 
 public class CustomItemHandler {
 
@@ -53,7 +54,7 @@ public class CustomItemHandler {
                     TntEntity tnt = new TntEntity(world, target.getX() + 0.5, target.getY(), target.getZ() + 0.5,
                             serverPlayer);
                     tnt.setFuse(80);
-                    world.spawnEntity(tnt);
+                    GameEntities.spawn(world, tnt, GameEntities.Kind.TNT);
                     world.playSound(null, tnt.getX(), tnt.getY(), tnt.getZ(), SoundEvents.ENTITY_TNT_PRIMED,
                             SoundCategory.BLOCKS, 1.0f, 1.0f);
 
@@ -85,7 +86,7 @@ public class CustomItemHandler {
         Vec3d look = player.getRotationVector();
         FireballEntity fireball = new FireballEntity(world, player, look, 1);
         fireball.setPosition(player.getX(), player.getEyeY() + look.y, player.getZ());
-        world.spawnEntity(fireball);
+        GameEntities.spawn(world, fireball, GameEntities.Kind.PROJECTILE);
 
         if (!player.isCreative()) {
             stack.decrement(1);
@@ -100,7 +101,7 @@ public class CustomItemHandler {
         egg.setPosition(player.getX(), player.getEyeY() - 0.1, player.getZ());
         egg.setItem(stack);
         egg.setVelocity(player, player.getPitch(), player.getYaw(), 0.0f, 1.5f, 1.0f);
-        world.spawnEntity(egg);
+        GameEntities.spawn(world, egg, GameEntities.Kind.PROJECTILE);
 
         if (!player.isCreative()) {
             stack.decrement(1);
@@ -14,6 +14,8 @@ import top.bearcabbage.twodimensional_bedwars.api.ITeam;
 import top.bearcabbage.twodimensional_bedwars.component.Arena;
 import top.bearcabbage.twodimensional_bedwars.component.BedWarsTeam;
 import top.bearcabbage.twodimensional_bedwars.component.OreGenerator;
+import top.bearcabbage.twodimensional_bedwars.game.ArenaProfiler;
+import top.bearcabbage.twodimensional_bedwars.world.GameEntities;
 
 public class GamePlayingTask {
     private static final double KD_RATIO_EPSILON = 0.0001;
@@ -37,7 +39,6 @@ public class GamePlayingTask {
     private int elapsedTime = 0; // In Seconds
 
     private final Map<UUID, Integer> respawnTimers = new HashMap<>();
-    private int tickCounter = 0;
 
     public GamePlayingTask(Arena arena) {
         this.arena = arena;
@@ -58,6 +59,7 @@ public class GamePlayingTask {
                         for (OreGenerator gen : arena.getPublicGenerators()) {
                             if (gen.getIdentifier().equalsIgnoreCase(setting.type)) {
                                 gen.updateSettings(setting.amount, setting.delaySeconds, setting.limit);
+                                gen.setLevel(level);
                             }
                         }
                     }
@@ -188,34 +190,22 @@ public class GamePlayingTask {
     public void run(ServerWorld world) {
         // Run every tick (20Hz)
 
-        // 1. Generators
+        // 1. Generators: only those due this tick
+        arena.getGeneratorWheel().tick(world);
+    }
+
+    // 2. Bed Integrity Check (every 10 ticks, scheduled by the arena)
+    public void checkBeds(ServerWorld world) {
         for (ITeam team : arena.getTeams()) {
             if (team instanceof BedWarsTeam bwTeam) {
-                for (OreGenerator generator : bwTeam.getLiveGenerators()) {
-                    generator.tick(world);
-                }
-            }
-        }
-        for (OreGenerator generator : arena.getPublicGenerators()) {
-            generator.tick(world);
-        }
-
-        // 2. Bed Integrity Check (Every 10 Ticks)
-        if (tickCounter % 10 == 0) {
-            for (ITeam team : arena.getTeams()) {
-                if (team instanceof BedWarsTeam bwTeam) {
-                    checkBedIntegrity(world, bwTeam, 1);
-                    checkBedIntegrity(world, bwTeam, 2);
-                }
+                checkBedIntegrity(world, bwTeam, 1);
+                checkBedIntegrity(world, bwTeam, 2);
             }
         }
+    }
 
-        // 3. One Second Logic
-        tickCounter++;
-        if (tickCounter < 20) {
-            return;
-        }
-        tickCounter = 0;
+    // 3. One Second Logic (scheduled by the arena)
+    public void runSecond(ServerWorld world) {
         elapsedTime++;
 
         // 4. Check Events
@@ -241,7 +231,9 @@ public class GamePlayingTask {
 
         // 6. Sudden Death Creepers
         if (suddenDeathActive) {
+            long profile = ArenaProfiler.begin();
             spawnSuddenDeathCreepers(world);
+            ArenaProfiler.end(ArenaProfiler.SUDDEN_DEATH, profile);
         }
 
         // 7. Win Condition (Every 1s)
@@ -482,7 +474,7 @@ public class GamePlayingTask {
 
         net.minecraft.entity.projectile.FireworkRocketEntity rocket = new net.minecraft.entity.projectile.FireworkRocketEntity(
                 world, pos.getX() + 0.5, pos.getY(), pos.getZ() + 0.5, stack);
-        world.spawnEntity(rocket);
+        GameEntities.spawn(world, rocket, GameEntities.Kind.FIREWORK);
     }
 
     private void spawnSuddenDeathCreepers(ServerWorld world) {
@@ -530,7 +522,7 @@ public class GamePlayingTask {
             }
             creeper.ignite();
 
-            world.spawnEntity(creeper);
+            GameEntities.spawn(world, creeper, GameEntities.Kind.CREEPER);
         }
     }
 
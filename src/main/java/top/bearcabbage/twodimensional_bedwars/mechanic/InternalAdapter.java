@@ -4,23 +4,170 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
 
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.world.dimension.DimensionType;
+
+/**
+ * File-level arena resets.
+ *
+ * A pristine copy of an arena dimension's region, entity and POI files is kept
+ * under {@code <level>/bedwars_pristine/<namespace>/<path>}. A reset copies
+ * them into a staging folder, then renames them in place of the live ones.
+ * The server keeps region files open for as long as a world exists, so the
+ * world is unloaded between the two steps and created again afterwards (see
+ * ArenaBuffers). A failed copy leaves the live files alone.
+ */
 public class InternalAdapter {
-    
+    private static final String PRISTINE_DIR = "bedwars_pristine";
+    private static final String[] DIMENSION_FOLDERS = { "region", "entities", "poi" };
+    // Inside the dimension folder, so the swap is a rename on one file system
+    private static final String STAGING_DIR = "bedwars_reset";
+    private static final String STAGED = "pristine";
+    private static final String PREVIOUS = "previous";
+
+    /** Replaces {@code worldPath} with a copy of {@code backupPath}. */
     public static void restoreMap(String backupPath, String worldPath) {
         try {
             File worldDir = new File(worldPath);
             if (worldDir.exists()) {
                 deleteDirectory(worldDir.toPath());
             }
-            // Unzip logic (Java standard lib doesn't have simple one-line unzip, usually assumes external lib or complex helper)
-            // For this minimal impl, we'll placeholder the unzip or copy logic
-            // copyDirectory(new File(backupPath).toPath(), worldDir.toPath());
+            copyDirectory(new File(backupPath).toPath(), worldDir.toPath());
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Flushes the world to disk and stores its files as the pristine copy.
+     * Only call this while the dimension matches the template.
+     */
+    public static void snapshotDimension(ServerWorld world) throws IOException {
+        world.save(null, true, false);
+
+        Path levelPath = world.getServer().getSavePath(WorldSavePath.ROOT);
+        Path source = DimensionType.getSaveDirectory(world.getRegistryKey(), levelPath);
+        Path pristine = pristinePath(levelPath, world.getRegistryKey().getValue());
+        if (Files.exists(pristine)) {
+            deleteDirectory(pristine);
+        }
+        for (String folder : DIMENSION_FOLDERS) {
+            if (Files.isDirectory(source.resolve(folder))) {
+                copyDirectory(source.resolve(folder), pristine.resolve(folder));
+            }
+        }
+    }
+
+    public static boolean hasSnapshot(MinecraftServer server, Identifier dimension) {
+        return Files.isDirectory(pristinePath(server.getSavePath(WorldSavePath.ROOT), dimension).resolve("region"));
+    }
+
+    /**
+     * Copies the dimension's pristine files next to its live ones, into a
+     * staging folder on the same file system. The live files are not touched,
+     * so this can run before the world is unloaded. Returns the staging folder
+     * for {@link #swapInStaged}.
+     */
+    public static Path stagePristineFiles(MinecraftServer server, Identifier dimension) throws IOException {
+        Path levelPath = server.getSavePath(WorldSavePath.ROOT);
+        Path pristine = pristinePath(levelPath, dimension);
+        if (!Files.isDirectory(pristine)) {
+            throw new IOException("No pristine copy of " + dimension);
+        }
+        Path staging = dimensionPath(levelPath, dimension).resolve(STAGING_DIR);
+        discardStaged(staging);
+        try {
+            for (String folder : DIMENSION_FOLDERS) {
+                // A folder missing from the copy becomes an empty one
+                Files.createDirectories(staging.resolve(STAGED).resolve(folder));
+                copyDirectory(pristine.resolve(folder), staging.resolve(STAGED).resolve(folder));
+            }
+        } catch (IOException e) {
+            discardStaged(staging);
+            throw e;
+        }
+        return staging;
+    }
+
+    /**
+     * Puts the staged files in place of the live ones with a rename per
+     * folder. The world must be unloaded, so that nothing has the files open.
+     * If a rename fails, the folders already swapped are put back and the
+     * dimension keeps its own files.
+     */
+    public static void swapInStaged(MinecraftServer server, Identifier dimension, Path staging) throws IOException {
+        Path dimensionPath = dimensionPath(server.getSavePath(WorldSavePath.ROOT), dimension);
+        Path previous = staging.resolve(PREVIOUS);
+        Files.createDirectories(previous);
+        List<String> touched = new ArrayList<>();
+        try {
+            for (String folder : DIMENSION_FOLDERS) {
+                Path live = dimensionPath.resolve(folder);
+                touched.add(folder);
+                if (Files.exists(live)) {
+                    Files.move(live, previous.resolve(folder), StandardCopyOption.ATOMIC_MOVE);
+                }
+                Files.move(staging.resolve(STAGED).resolve(folder), live, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            for (String folder : touched) {
+                Path live = dimensionPath.resolve(folder);
+                if (Files.exists(previous.resolve(folder))) {
+                    if (Files.exists(live)) {
+                        deleteDirectory(live);
+                    }
+                    Files.move(previous.resolve(folder), live, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            discardStaged(staging);
+            throw e;
+        }
+        discardStaged(staging);
+    }
+
+    /** Deletes a staging folder left by {@link #stagePristineFiles}, if any. */
+    public static void discardStaged(Path staging) throws IOException {
+        if (Files.exists(staging)) {
+            deleteDirectory(staging);
+        }
+    }
+
+    private static Path dimensionPath(Path levelPath, Identifier dimension) {
+        return DimensionType.getSaveDirectory(RegistryKey.of(RegistryKeys.WORLD, dimension), levelPath);
+    }
+
+    private static Path pristinePath(Path levelPath, Identifier dimension) {
+        return levelPath.resolve(PRISTINE_DIR).resolve(dimension.getNamespace()).resolve(dimension.getPath());
+    }
+
+    // Plain copies rather than hard links: region files are rewritten in place,
+    // so a linked file would carry the next match's damage into the pristine copy
+    private static void copyDirectory(Path source, Path target) throws IOException {
+        if (!Files.isDirectory(source)) return;
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.copy(file, target.resolve(source.relativize(file).toString()),
+                        StandardCopyOption.REPLACE_EXISTING);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
     private static void deleteDirectory(Path path) throws IOException {
         Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
             @Override
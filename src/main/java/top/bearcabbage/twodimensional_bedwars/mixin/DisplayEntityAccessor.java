@@ -0,0 +1,14 @@
+package top.bearcabbage.twodimensional_bedwars.mixin;
+
+import net.minecraft.entity.data.TrackedData;
+import net.minecraft.entity.decoration.DisplayEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(DisplayEntity.class)
+public interface DisplayEntityAccessor {
+    @Accessor("BILLBOARD")
+    static TrackedData<Byte> getBillboardData() {
+        throw new AssertionError();
+    }
+}
@@ -15,6 +15,8 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import top.bearcabbage.twodimensional_bedwars.api.ITeam;
 import top.bearcabbage.twodimensional_bedwars.component.Arena;
 import top.bearcabbage.twodimensional_bedwars.game.ArenaManager;
+import top.bearcabbage.twodimensional_bedwars.game.ArenaProfiler;
+import top.bearcabbage.twodimensional_bedwars.world.LightBatch;
 
 @Mixin(ThrownEntity.class)
 public abstract class EggEntityMixin extends ProjectileEntity {
@@ -27,6 +29,12 @@ public abstract class EggEntityMixin extends ProjectileEntity {
     private void tickBridgeEgg(CallbackInfo ci) {
         if (this.getWorld().isClient)
             return;
+        long profile = ArenaProfiler.begin();
+        placeBridge();
+        ArenaProfiler.end(ArenaProfiler.BRIDGE_EGG, profile);
+    }
+
+    private void placeBridge() {
 
         // Ensure this logic only runs for EggEntity instances
         if (!((Object) this instanceof EggEntity))
@@ -35,7 +43,7 @@ public abstract class EggEntityMixin extends ProjectileEntity {
         // Simplified Logic: All eggs in "arena" dimension are Bridge Eggs
         net.minecraft.util.Identifier dimId = this.getWorld().getRegistryKey().getValue();
 
-        if (dimId.getPath().equals("arena")) {
+        if (dimId.getPath().startsWith("arena")) {
             if (this.age > 10) {
                 Vec3d currentPos = this.getPos();
                 Vec3d velocity = this.getVelocity();
@@ -43,6 +51,8 @@ public abstract class EggEntityMixin extends ProjectileEntity {
 
                 double dist = prevPos.distanceTo(currentPos);
                 int steps = (int) Math.ceil(dist * 2);
+                // Relight the blocks placed this tick in one go
+                LightBatch lightBatch = new LightBatch((net.minecraft.server.world.ServerWorld) this.getWorld());
 
                 for (int i = 0; i <= steps; i++) {
                     double t = (double) i / steps;
@@ -58,20 +68,21 @@ public abstract class EggEntityMixin extends ProjectileEntity {
                         offsetPos = below.east();
                     }
 
-                    placeBridgeBlock(below);
-                    placeBridgeBlock(offsetPos);
+                    placeBridgeBlock(lightBatch, below);
+                    placeBridgeBlock(lightBatch, offsetPos);
                 }
+                lightBatch.flush();
             }
         }
     }
 
-    private void placeBridgeBlock(BlockPos pos) {
+    private void placeBridgeBlock(LightBatch lightBatch, BlockPos pos) {
         if (this.getWorld().getBlockState(pos).isAir()) {
             net.minecraft.block.Block blockToPlace = Blocks.WHITE_WOOL;
 
             net.minecraft.entity.Entity owner = this.getOwner();
             if (owner instanceof net.minecraft.server.network.ServerPlayerEntity player) {
-                if (ArenaManager.getInstance().getArena() instanceof Arena arena) {
+                if (ArenaManager.getInstance().getArena(player) instanceof Arena arena) {
                     ITeam team = arena.getTeam(player);
                     if (team != null) {
                         String teamName = team.getName();
@@ -90,11 +101,11 @@ public abstract class EggEntityMixin extends ProjectileEntity {
                 }
             }
 
-            if (ArenaManager.getInstance().getArena() instanceof Arena arena) {
+            if (ArenaManager.getInstance().getArenaByWorld(this.getWorld()) instanceof Arena arena) {
                 arena.getData().recordPlacedBlock(pos);
             }
 
-            this.getWorld().setBlockState(pos, blockToPlace.getDefaultState());
+            lightBatch.setBlockState(pos, blockToPlace.getDefaultState());
         }
     }
 }
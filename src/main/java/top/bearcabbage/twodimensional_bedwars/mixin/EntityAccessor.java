@@ -0,0 +1,16 @@
+package top.bearcabbage.twodimensional_bedwars.mixin;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.minecraft.entity.Entity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(Entity.class)
+public interface EntityAccessor {
+    // Hands out entity ids; packet-only entities take theirs here so they never clash with real ones
+    @Accessor("CURRENT_ID")
+    static AtomicInteger getCurrentId() {
+        throw new AssertionError();
+    }
+}
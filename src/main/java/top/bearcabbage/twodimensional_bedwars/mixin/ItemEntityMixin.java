@@ -0,0 +1,60 @@
+package top.bearcabbage.twodimensional_bedwars.mixin;
+
+import net.minecraft.entity.ItemEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.ItemStack;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import top.bearcabbage.twodimensional_bedwars.component.GeneratorDrop;
+import top.bearcabbage.twodimensional_bedwars.component.OreGenerator;
+
+@Mixin(ItemEntity.class)
+public abstract class ItemEntityMixin implements GeneratorDrop {
+    @Unique
+    private OreGenerator bedwars$generator;
+    @Unique
+    private int bedwars$counted;
+
+    @Override
+    public OreGenerator bedwars$getGenerator() {
+        return bedwars$generator;
+    }
+
+    @Override
+    public void bedwars$setGenerator(OreGenerator generator) {
+        bedwars$generator = generator;
+    }
+
+    @Override
+    public int bedwars$getCounted() {
+        return bedwars$counted;
+    }
+
+    @Override
+    public void bedwars$setCounted(int counted) {
+        bedwars$counted = counted;
+    }
+
+    // A partial pickup shrinks the stack; a full one discards the entity, which the unload event handles
+    @Inject(method = "onPlayerCollision", at = @At("RETURN"))
+    private void syncGeneratorCountAfterPickup(PlayerEntity player, CallbackInfo ci) {
+        OreGenerator.syncDrop((ItemEntity) (Object) this);
+    }
+
+    // Stack merging moves items from source to target and discards an emptied source
+    @Inject(method = "merge(Lnet/minecraft/entity/ItemEntity;Lnet/minecraft/item/ItemStack;Lnet/minecraft/entity/ItemEntity;Lnet/minecraft/item/ItemStack;)V", at = @At("HEAD"))
+    private static void adoptMergeTarget(ItemEntity target, ItemStack targetStack, ItemEntity source,
+            ItemStack sourceStack, CallbackInfo ci) {
+        OreGenerator.adoptDrop(target, source);
+    }
+
+    @Inject(method = "merge(Lnet/minecraft/entity/ItemEntity;Lnet/minecraft/item/ItemStack;Lnet/minecraft/entity/ItemEntity;Lnet/minecraft/item/ItemStack;)V", at = @At("RETURN"))
+    private static void syncGeneratorCountAfterMerge(ItemEntity target, ItemStack targetStack, ItemEntity source,
+            ItemStack sourceStack, CallbackInfo ci) {
+        OreGenerator.syncDrop(target);
+        OreGenerator.syncDrop(source);
+    }
+}
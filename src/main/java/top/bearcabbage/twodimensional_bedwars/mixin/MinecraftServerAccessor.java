@@ -0,0 +1,25 @@
+package top.bearcabbage.twodimensional_bedwars.mixin;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.World;
+import net.minecraft.world.level.storage.LevelStorage;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(MinecraftServer.class)
+public interface MinecraftServerAccessor {
+    // The live world map; runtime arena worlds are added to and removed from it
+    @Accessor("worlds")
+    Map<RegistryKey<World>, ServerWorld> getWorldMap();
+
+    @Accessor("session")
+    LevelStorage.Session getLevelSession();
+
+    @Accessor("workerExecutor")
+    Executor getWorkerExecutor();
+}
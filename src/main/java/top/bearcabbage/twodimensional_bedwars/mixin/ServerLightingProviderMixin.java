@@ -0,0 +1,51 @@
+package top.bearcabbage.twodimensional_bedwars.mixin;
+
+import net.minecraft.server.world.ServerLightingProvider;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.light.ChunkLightProvider;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.ModifyArg;
+import top.bearcabbage.twodimensional_bedwars.world.BatchRelight;
+
+@Mixin(ServerLightingProvider.class)
+public abstract class ServerLightingProviderMixin implements BatchRelight {
+    @Unique
+    private long[] bedwars$batch;
+
+    // Goes through checkBlock so the task lands in the light queue exactly like a vanilla check,
+    // the runnable is swapped below for one covering the whole batch
+    @Override
+    public void bedwars$checkBlocks(long[] positions) {
+        if (positions.length == 0)
+            return;
+        bedwars$batch = positions;
+        try {
+            ((ServerLightingProvider) (Object) this).checkBlock(BlockPos.fromLong(positions[0]));
+        } finally {
+            bedwars$batch = null;
+        }
+    }
+
+    @ModifyArg(method = "checkBlock", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/world/ServerLightingProvider;enqueue(IILnet/minecraft/server/world/ServerLightingProvider$Stage;Ljava/lang/Runnable;)V"), index = 3)
+    private Runnable batchCheckBlock(Runnable task) {
+        long[] positions = bedwars$batch;
+        if (positions == null)
+            return task;
+
+        LightingProviderAccessor providers = (LightingProviderAccessor) this;
+        return () -> {
+            ChunkLightProvider<?, ?> blockLight = providers.getBlockLightProvider();
+            ChunkLightProvider<?, ?> skyLight = providers.getSkyLightProvider();
+            BlockPos.Mutable pos = new BlockPos.Mutable();
+            for (long packed : positions) {
+                pos.set(packed);
+                if (blockLight != null)
+                    blockLight.checkBlock(pos);
+                if (skyLight != null)
+                    skyLight.checkBlock(pos);
+            }
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package top.bearcabbage.twodimensional_bedwars.mixin;
+
+import net.minecraft.entity.data.TrackedData;
+import net.minecraft.entity.decoration.DisplayEntity;
+import net.minecraft.text.Text;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(DisplayEntity.TextDisplayEntity.class)
+public interface TextDisplayEntityAccessor {
+    @Accessor("TEXT")
+    static TrackedData<Text> getTextData() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,25 @@
+package top.bearcabbage.twodimensional_bedwars.mixin;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import top.bearcabbage.twodimensional_bedwars.component.MapManager;
+import top.bearcabbage.twodimensional_bedwars.game.ArenaProfiler;
+
+@Mixin(World.class)
+public abstract class WorldMixin {
+
+    // Every block write in the arena (placing, breaking, explosions, fluids, bed/portal setup)
+    // funnels through here, so this is where the restore change journal is fed.
+    @Inject(method = "setBlockState(Lnet/minecraft/util/math/BlockPos;Lnet/minecraft/block/BlockState;II)Z", at = @At("HEAD"))
+    private void recordArenaBlockChange(BlockPos pos, BlockState state, int flags, int maxUpdateDepth,
+            CallbackInfoReturnable<Boolean> cir) {
+        long profile = ArenaProfiler.begin();
+        MapManager.recordBlockChange((World) (Object) this, pos);
+        ArenaProfiler.end(ArenaProfiler.BLOCK_JOURNAL, profile);
+    }
+}
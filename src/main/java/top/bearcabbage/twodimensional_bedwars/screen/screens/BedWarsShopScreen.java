@@ -35,7 +35,7 @@ public class BedWarsShopScreen extends AbstractACScreen {
         top.bearcabbage.twodimensional_bedwars.component.BedWarsPlayer bwPlayer = null;
 
         top.bearcabbage.twodimensional_bedwars.api.IArena arena = top.bearcabbage.twodimensional_bedwars.game.ArenaManager
-                .getInstance().getArena();
+                .getInstance().getArena(viewer);
         if (arena instanceof top.bearcabbage.twodimensional_bedwars.component.Arena arenaImpl) {
             top.bearcabbage.twodimensional_bedwars.api.ITeam t = arenaImpl.getTeam(viewer);
             if (t instanceof top.bearcabbage.twodimensional_bedwars.component.BedWarsTeam bwt) {
@@ -345,7 +345,7 @@ public class BedWarsShopScreen extends AbstractACScreen {
             boolean handled = false;
 
             top.bearcabbage.twodimensional_bedwars.api.IArena arena = top.bearcabbage.twodimensional_bedwars.game.ArenaManager
-                    .getInstance().getArena();
+                    .getInstance().getArena(player);
             if (arena instanceof top.bearcabbage.twodimensional_bedwars.component.Arena arenaImpl) {
                 top.bearcabbage.twodimensional_bedwars.api.ITeam team = arenaImpl.getTeam(player);
                 if (team instanceof top.bearcabbage.twodimensional_bedwars.component.BedWarsTeam bwTeam) {
@@ -380,7 +380,7 @@ public class BedWarsShopScreen extends AbstractACScreen {
 
                 if (entry.specialType != null && entry.specialType.equals("SHEARS")) {
                     top.bearcabbage.twodimensional_bedwars.api.IArena arena2 = top.bearcabbage.twodimensional_bedwars.game.ArenaManager
-                            .getInstance().getArena();
+                            .getInstance().getArena(player);
                     if (arena2 instanceof top.bearcabbage.twodimensional_bedwars.component.Arena arenaImpl) {
                         top.bearcabbage.twodimensional_bedwars.api.ITeam team = arenaImpl.getTeam(player);
                         if (team instanceof top.bearcabbage.twodimensional_bedwars.component.BedWarsTeam bwTeam) {
@@ -0,0 +1,93 @@
+package top.bearcabbage.twodimensional_bedwars.world;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.minecraft.network.packet.s2c.play.PositionFlag;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.WorldGenerationProgressListener;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.SaveProperties;
+import net.minecraft.world.World;
+import net.minecraft.world.biome.source.BiomeAccess;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.dimension.DimensionOptions;
+import net.minecraft.world.level.UnmodifiableLevelProperties;
+import top.bearcabbage.twodimensional_bedwars.mixin.MinecraftServerAccessor;
+
+/**
+ * Arena worlds that exist without a dimension declared in the data pack.
+ *
+ * A runtime world is built the way vanilla builds its secondary dimensions and
+ * put into the server's world map, so it ticks, saves and shuts down with the
+ * others. It takes the dimension type and chunk generator of a declared arena
+ * world and saves under the usual {@code dimensions/<namespace>/<path>}
+ * folder, so it finds its files again when it is created after a restart.
+ *
+ * Any world can be unloaded the same way: its players are moved to the
+ * overworld spawn, it is saved, closed and taken out of the map. Nothing holds
+ * its files open after that, so they can be replaced before it is created
+ * again.
+ */
+public class ArenaWorlds {
+    // Runtime worlds generate nothing worth reporting
+    private static final WorldGenerationProgressListener NO_PROGRESS = new WorldGenerationProgressListener() {
+        @Override
+        public void start(ChunkPos spawnPos) {
+        }
+
+        @Override
+        public void setChunkStatus(ChunkPos pos, @Nullable ChunkStatus status) {
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void stop() {
+        }
+    };
+
+    /** Creates the world {@code key} with the type and generator of {@code model} and starts ticking it. */
+    public static ServerWorld create(MinecraftServer server, RegistryKey<World> key, ServerWorld model) {
+        MinecraftServerAccessor access = (MinecraftServerAccessor) server;
+        SaveProperties saveProperties = server.getSaveProperties();
+        ServerWorld world = new ServerWorld(server, access.getWorkerExecutor(), access.getLevelSession(),
+                new UnmodifiableLevelProperties(saveProperties, saveProperties.getMainWorldProperties()), key,
+                new DimensionOptions(model.getDimensionEntry(), model.getChunkManager().getChunkGenerator()),
+                NO_PROGRESS, saveProperties.isDebugWorld(),
+                BiomeAccess.hashSeed(saveProperties.getGeneratorOptions().getSeed()), List.of(), false,
+                server.getOverworld().getRandomSequences());
+        access.getWorldMap().put(key, world);
+        ServerWorldEvents.LOAD.invoker().onWorldLoad(server, world);
+        return world;
+    }
+
+    /**
+     * Moves everyone out of the world, saves it and closes it. Must not run
+     * while the server iterates its worlds, so only from the end of a tick.
+     */
+    public static void unload(MinecraftServer server, ServerWorld world) throws IOException {
+        ServerWorld overworld = server.getOverworld();
+        BlockPos spawn = overworld.getSpawnPos();
+        for (ServerPlayerEntity player : new ArrayList<>(world.getPlayers())) {
+            player.teleport(overworld, spawn.getX(), spawn.getY(), spawn.getZ(), EnumSet.noneOf(PositionFlag.class),
+                    0, 0, false);
+        }
+
+        ((MinecraftServerAccessor) server).getWorldMap().remove(world.getRegistryKey(), world);
+        ServerWorldEvents.UNLOAD.invoker().onWorldUnload(server, world);
+        world.save(null, true, false);
+        world.close();
+    }
+}
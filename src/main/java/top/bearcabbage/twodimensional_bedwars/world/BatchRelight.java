@@ -0,0 +1,9 @@
+package top.bearcabbage.twodimensional_bedwars.world;
+
+/**
+ * Implemented on ServerLightingProvider by ServerLightingProviderMixin.
+ * Queues light checks for many positions as a single light-engine task.
+ */
+public interface BatchRelight {
+    void bedwars$checkBlocks(long[] positions);
+}
@@ -0,0 +1,131 @@
+package top.bearcabbage.twodimensional_bedwars.world;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.world.ChunkTicketType;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import top.bearcabbage.twodimensional_bedwars.config.GameConfig;
+
+/**
+ * Reference-counted chunk loading. Restores, matches, spectators and the
+ * start countdown each take a {@link Lease} on the chunks they need; a chunk
+ * holds a ticket while at least one lease covers it and loses it when the
+ * last one goes away, so idle arenas can unload.
+ *
+ * The tickets keep chunks loaded and ticking like forced chunks, but are not
+ * saved with the world: a crash or stop while a lease is held leaves nothing
+ * behind, and /forceload is untouched.
+ */
+public class ChunkLeases {
+    public enum Purpose {
+        RESTORE, MATCH, SPECTATE, WARMUP
+    }
+
+    // Not persisted, never expires
+    public static final ChunkTicketType TICKET_TYPE = new ChunkTicketType(0L, false,
+            ChunkTicketType.Use.LOADING_AND_SIMULATION);
+    // Ticket radius that makes the leased chunk itself entity-ticking, as a forced chunk is
+    private static final int TICKET_RADIUS = 2;
+
+    private static class WorldLeases {
+        final Long2IntOpenHashMap counts = new Long2IntOpenHashMap();
+    }
+
+    private static final Map<RegistryKey<World>, WorldLeases> worlds = new HashMap<>();
+    private static final List<Lease> active = new ArrayList<>();
+
+    public static class Lease {
+        private final ServerWorld world;
+        private final Purpose purpose;
+        private final long[] chunks;
+        private boolean released = false;
+
+        private Lease(ServerWorld world, Purpose purpose, long[] chunks) {
+            this.world = world;
+            this.purpose = purpose;
+            this.chunks = chunks;
+        }
+
+        public void release() {
+            if (released) return;
+            released = true;
+            active.remove(this);
+
+            WorldLeases leases = worlds.get(world.getRegistryKey());
+            for (long chunk : chunks) {
+                int count = leases.counts.addTo(chunk, -1) - 1;
+                if (count <= 0) {
+                    leases.counts.remove(chunk);
+                    world.getChunkManager().removeTicket(TICKET_TYPE, new ChunkPos(chunk), TICKET_RADIUS);
+                }
+            }
+        }
+
+        public Purpose getPurpose() {
+            return purpose;
+        }
+
+        public ServerWorld getWorld() {
+            return world;
+        }
+
+        public int getChunkCount() {
+            return chunks.length;
+        }
+    }
+
+    /** Leases every chunk overlapping the given regions, widened by {@code padding} chunks. */
+    public static Lease acquire(ServerWorld world, Purpose purpose, List<GameConfig.MapRegion> regions, int padding) {
+        LongOpenHashSet keys = new LongOpenHashSet();
+        for (GameConfig.MapRegion region : regions) {
+            int minCx = (region.getMinPt().x >> 4) - padding;
+            int minCz = (region.getMinPt().z >> 4) - padding;
+            int maxCx = (region.getMaxPt().x >> 4) + padding;
+            int maxCz = (region.getMaxPt().z >> 4) + padding;
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                for (int cz = minCz; cz <= maxCz; cz++) {
+                    keys.add(ChunkPos.toLong(cx, cz));
+                }
+            }
+        }
+
+        WorldLeases leases = worlds.computeIfAbsent(world.getRegistryKey(), key -> new WorldLeases());
+        LongArrayList chunks = new LongArrayList(keys.size());
+        for (long chunk : keys) {
+            if (leases.counts.addTo(chunk, 1) == 0) {
+                // First lease on this chunk
+                world.getChunkManager().addTicket(TICKET_TYPE, new ChunkPos(chunk), TICKET_RADIUS);
+            }
+            chunks.add(chunk);
+        }
+
+        Lease lease = new Lease(world, purpose, chunks.toLongArray());
+        active.add(lease);
+        return lease;
+    }
+
+    /** Leases the configured bounds of both arenas. */
+    public static Lease acquireArena(ServerWorld world, Purpose purpose) {
+        GameConfig.RestoreConfig restoreConfig = GameConfig.getInstance().arenaRestoreConfig;
+        return acquire(world, purpose, List.of(restoreConfig.arena1Bounds, restoreConfig.arena2Bounds), 1);
+    }
+
+    public static List<Lease> getActiveLeases() {
+        return new ArrayList<>(active);
+    }
+
+    /** Distinct chunks currently held by leases in a world. */
+    public static int getLeasedChunkCount(ServerWorld world) {
+        WorldLeases leases = worlds.get(world.getRegistryKey());
+        return leases == null ? 0 : leases.counts.size();
+    }
+}
@@ -0,0 +1,121 @@
+package top.bearcabbage.twodimensional_bedwars.world;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.World;
+
+/**
+ * Every non-player entity a game world holds, so cleanup and lookups never
+ * have to scan the world for them.
+ *
+ * Entities the game spawns go through {@link #spawn} with their {@link Kind}.
+ * In arena dimensions every other entity that loads (block drops, arrows,
+ * anything left in saved chunks) is picked up as {@link Kind#OTHER}, so a
+ * cleanup leaves nothing behind. Entities drop out of the registry when they
+ * are removed or unloaded.
+ */
+public class GameEntities {
+    public enum Kind {
+        GENERATOR_DROP, DEATH_DROP, SHOPKEEPER, PROJECTILE, TNT, CREEPER, FIREWORK, OTHER
+    }
+
+    private static final Map<RegistryKey<World>, GameEntities> registries = new HashMap<>();
+
+    private final Reference2ObjectLinkedOpenHashMap<Entity, Kind> entities = new Reference2ObjectLinkedOpenHashMap<>();
+    // Whether entities that load on their own are tracked too (arena dimensions only)
+    private final boolean trackLoads;
+
+    private GameEntities(boolean trackLoads) {
+        this.trackLoads = trackLoads;
+    }
+
+    /**
+     * Starts a registry for a world. With {@code trackLoads} every entity
+     * loading into the world is tracked, which only makes sense for worlds that
+     * hold nothing but the arena.
+     */
+    public static GameEntities open(ServerWorld world, boolean trackLoads) {
+        return registries.computeIfAbsent(world.getRegistryKey(), key -> new GameEntities(trackLoads));
+    }
+
+    /** The registry of a world, or null. */
+    public static GameEntities get(World world) {
+        return registries.get(world.getRegistryKey());
+    }
+
+    /** Spawns an entity the game created and tracks it if the world has a registry. */
+    public static boolean spawn(World world, Entity entity, Kind kind) {
+        GameEntities registry = registries.get(world.getRegistryKey());
+        if (registry != null) {
+            registry.entities.put(entity, kind);
+        }
+        if (!world.spawnEntity(entity)) {
+            if (registry != null) registry.entities.remove(entity);
+            return false;
+        }
+        return true;
+    }
+
+    // ServerEntityEvents.ENTITY_LOAD
+    public static void onEntityLoad(Entity entity, ServerWorld world) {
+        if (entity instanceof PlayerEntity) return;
+        GameEntities registry = registries.get(world.getRegistryKey());
+        if (registry != null && registry.trackLoads) {
+            registry.entities.putIfAbsent(entity, Kind.OTHER);
+        }
+    }
+
+    // ServerEntityEvents.ENTITY_UNLOAD, also fired for killed and discarded entities
+    public static void onEntityUnload(Entity entity, ServerWorld world) {
+        if (entity instanceof net.minecraft.entity.ItemEntity item) {
+            top.bearcabbage.twodimensional_bedwars.component.OreGenerator.releaseDrop(item);
+        }
+        GameEntities registry = registries.get(world.getRegistryKey());
+        if (registry != null) {
+            registry.entities.remove(entity);
+        }
+    }
+
+    /** Tracked entities of one kind that are instances of {@code type}. */
+    public <T extends Entity> List<T> getEntities(Kind kind, Class<T> type) {
+        List<T> result = new ArrayList<>();
+        for (Map.Entry<Entity, Kind> entry : entities.entrySet()) {
+            if (entry.getValue() == kind && type.isInstance(entry.getKey()) && !entry.getKey().isRemoved()) {
+                result.add(type.cast(entry.getKey()));
+            }
+        }
+        return result;
+    }
+
+    /** Discards every tracked entity. */
+    public void discardAll() {
+        // Discarding fires the unload event, which edits the map
+        List<Entity> snapshot = new ArrayList<>(entities.keySet());
+        entities.clear();
+        for (Entity entity : snapshot) {
+            if (!entity.isRemoved()) {
+                entity.discard();
+            }
+        }
+    }
+
+    /** Discards everything and drops the registry of a world that is no longer a game world. */
+    public static void close(ServerWorld world) {
+        GameEntities registry = registries.remove(world.getRegistryKey());
+        if (registry != null) {
+            registry.discardAll();
+        }
+    }
+
+    public int size() {
+        return entities.size();
+    }
+}
@@ -0,0 +1,78 @@
+package top.bearcabbage.twodimensional_bedwars.world;
+
+import java.util.BitSet;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.WorldChunk;
+import net.minecraft.world.chunk.light.LightingProvider;
+
+/**
+ * Bulk block edits with lighting deferred to the end of the batch.
+ *
+ * Writes skip the per-block light update (flag 128) and only remember the
+ * position. {@link #flush()} then hands each affected chunk to the light
+ * engine as one task covering all of its positions, so one task is queued per
+ * chunk instead of one per block. The task still runs a light check for every
+ * position.
+ */
+public class LightBatch {
+    private final ServerWorld world;
+    private final Long2ObjectLinkedOpenHashMap<LongArrayList> changesByChunk = new Long2ObjectLinkedOpenHashMap<>();
+
+    public LightBatch(ServerWorld world) {
+        this.world = world;
+    }
+
+    public boolean setBlockState(BlockPos pos, BlockState state) {
+        return setBlockState(pos, state, Block.NOTIFY_ALL);
+    }
+
+    public boolean setBlockState(BlockPos pos, BlockState state, int flags) {
+        if (world.setBlockState(pos, state, flags | Block.SKIP_LIGHTING_UPDATES)) {
+            recordChange(pos.asLong());
+            return true;
+        }
+        return false;
+    }
+
+    /** For writes done behind the world's back, e.g. straight into chunk sections. */
+    public void recordChange(long pos) {
+        long chunkKey = ChunkPos.toLong(BlockPos.unpackLongX(pos) >> 4, BlockPos.unpackLongZ(pos) >> 4);
+        changesByChunk.computeIfAbsent(chunkKey, key -> new LongArrayList()).add(pos);
+    }
+
+    public void flush() {
+        for (LongArrayList changed : changesByChunk.values()) {
+            long first = changed.getLong(0);
+            relightChunk(world, world.getChunk(BlockPos.unpackLongX(first) >> 4, BlockPos.unpackLongZ(first) >> 4),
+                    changed);
+        }
+        changesByChunk.clear();
+    }
+
+    /** Lighting for one chunk whose blocks in {@code changed} were written without light updates. */
+    public static void relightChunk(ServerWorld world, WorldChunk chunk, LongArrayList changed) {
+        chunk.getChunkSkyLight().refreshSurfaceY(chunk);
+
+        LightingProvider lighting = world.getLightingProvider();
+        BitSet sectionsDone = new BitSet();
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (int i = 0; i < changed.size(); i++) {
+            pos.set(changed.getLong(i));
+            int index = world.getSectionIndex(pos.getY());
+            if (index >= 0 && !sectionsDone.get(index)) {
+                sectionsDone.set(index);
+                lighting.setSectionStatus(ChunkSectionPos.from(pos), chunk.getSection(index).isEmpty());
+            }
+        }
+
+        ((BatchRelight) lighting).bedwars$checkBlocks(changed.toLongArray());
+    }
+}